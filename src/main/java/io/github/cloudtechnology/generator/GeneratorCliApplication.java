@@ -1,5 +1,7 @@
 package io.github.cloudtechnology.generator;
 
+import io.github.cloudtechnology.generator.cli.DirectLauncher;
+import java.util.Arrays;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.shell.command.annotation.CommandScan;
@@ -9,6 +11,32 @@ import org.springframework.shell.command.annotation.CommandScan;
 public class GeneratorCliApplication {
 
   public static void main(String[] args) {
+    if (isStandardOutputArchive(args)) {
+      // 壓縮檔直接寫入 stdout，banner 與 log 全部改到 stderr 避免混入壓縮檔
+      System.setOut(System.err);
+    }
+    if (args.length > 0 && DirectLauncher.COMMAND.equals(args[0])) {
+      // 腳本與 CI 使用的非互動入口，不建立 Spring Shell
+      System.exit(
+        DirectLauncher.run(Arrays.copyOfRange(args, 1, args.length))
+      );
+    }
     SpringApplication.run(GeneratorCliApplication.class, args);
   }
+
+  private static boolean isStandardOutputArchive(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (
+        "--output=-".equals(args[i]) ||
+        (
+          "--output".equals(args[i]) &&
+          i + 1 < args.length &&
+          "-".equals(args[i + 1])
+        )
+      ) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
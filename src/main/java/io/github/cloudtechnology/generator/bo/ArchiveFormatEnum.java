@@ -0,0 +1,36 @@
+package io.github.cloudtechnology.generator.bo;
+
+public enum ArchiveFormatEnum {
+  ZIP("ZIP", ".zip"),
+  TAR("TAR", ".tar");
+
+  private String value;
+  private String extension;
+
+  private ArchiveFormatEnum(String value, String extension) {
+    this.value = value;
+    this.extension = extension;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(value);
+  }
+
+  public static ArchiveFormatEnum fromValue(String value) {
+    for (ArchiveFormatEnum b : ArchiveFormatEnum.values()) {
+      if (b.value.equals(value)) {
+        return b;
+      }
+    }
+    throw new IllegalArgumentException("Unexpected value '" + value + "'");
+  }
+}
@@ -0,0 +1,37 @@
+package io.github.cloudtechnology.generator.bo;
+
+/**
+ * 專案產生流程中的各個階段
+ */
+public enum PhaseEnum {
+  SCAFFOLD("SCAFFOLD"),
+  OPENAPI("OPENAPI"),
+  SCHEMA("SCHEMA"),
+  JOOQ("JOOQ"),
+  REPOSITORY("REPOSITORY"),
+  LIQUIBASE("LIQUIBASE");
+
+  private String value;
+
+  private PhaseEnum(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(value);
+  }
+
+  public static PhaseEnum fromValue(String value) {
+    for (PhaseEnum b : PhaseEnum.values()) {
+      if (b.value.equals(value)) {
+        return b;
+      }
+    }
+    throw new IllegalArgumentException("Unexpected value '" + value + "'");
+  }
+}
@@ -0,0 +1,60 @@
+package io.github.cloudtechnology.generator.cli;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.util.StringUtils;
+
+import io.github.cloudtechnology.generator.service.BatchService;
+import io.github.cloudtechnology.generator.service.report.GenerationReport;
+import io.github.cloudtechnology.generator.vo.BatchResultVo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 依 YAML/JSON 批次檔一次產生多個專案
+ *
+ * 批次檔為專案設定的清單，欄位與 generator 指令的選項相同
+ */
+@Slf4j
+@Command
+@RequiredArgsConstructor
+public class BatchGenerator {
+
+  private final BatchService batchService;
+
+  @Command(command = { "batch" })
+  public void batch(
+      @Option(longNames = "file", required = true) String file,
+      @Option(longNames = "parallelism") Integer parallelism,
+      @Option(longNames = "report") String report) throws Exception {
+    int workers = parallelism == null || parallelism < 1
+        ? Runtime.getRuntime().availableProcessors()
+        : parallelism;
+    long start = System.nanoTime();
+    List<BatchResultVo> results = batchService.generate(Path.of(file), workers);
+    long failed = results.stream().filter(result -> !result.success()).count();
+    for (BatchResultVo result : results) {
+      log.info(
+          "{} {} -> {} ({} ms){}",
+          result.success() ? "✅" : "❌",
+          result.name(),
+          result.output(),
+          result.elapsedMillis(),
+          result.success() ? "" : ": " + result.error());
+    }
+    log.info(
+        "📚 批次產生完成: {} 個成功，{} 個失敗，總耗時 {} ms",
+        results.size() - failed,
+        failed,
+        (System.nanoTime() - start) / 1_000_000);
+    if (StringUtils.hasText(report)) {
+      GenerationReport.writeJson(results, report);
+    }
+    if (failed > 0) {
+      throw new IllegalStateException(failed + " batch project(s) failed");
+    }
+  }
+}
@@ -0,0 +1,338 @@
+package io.github.cloudtechnology.generator.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+import io.github.cloudtechnology.generator.GeneratorCliApplication;
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import io.github.cloudtechnology.generator.bo.BuildToolEnum;
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.command.CreateProjectCommand;
+import io.github.cloudtechnology.generator.service.ProjectService;
+import io.github.cloudtechnology.generator.service.watch.ProjectWatcher;
+import io.github.cloudtechnology.generator.transform.GeneratorMapper;
+import io.github.cloudtechnology.generator.vo.BatchProjectVo;
+import io.github.cloudtechnology.generator.vo.GenerationReportVo;
+
+/**
+ * 不經過 Spring Shell 的非互動入口，供腳本與 CI 使用
+ *
+ * ./generator-cli generate --name demo --packageName com.example.demo [選項...]
+ *
+ * 選項與 generator 指令相同，但不會提示輸入：缺少必要的值時在啟動 Spring 前就失敗，
+ * 沒有提供 OpenAPI 規格或資料庫時直接略過對應的階段。
+ * 以 direct profile 啟動不含 Spring Shell 與終端機的 context，並直接呼叫 ProjectService。
+ * 含有 . 的選項 (例如 --cli.cache.enabled=true) 會原樣交給 Spring
+ */
+public final class DirectLauncher {
+
+  public static final String COMMAND = "generate";
+  public static final String PROFILE = "direct";
+
+  static final int EXIT_OK = 0;
+  static final int EXIT_FAILED = 1;
+  static final int EXIT_USAGE = 2;
+
+  private static final Set<String> OPTIONS = Set.of(
+      "buildTool",
+      "groupId",
+      "artifactId",
+      "name",
+      "description",
+      "packageName",
+      "jvmVersion",
+      "openapiFilePath",
+      "dbUrl",
+      "dbUsername",
+      "dbPassword",
+      "schemaFile",
+      "runtime",
+      "archive",
+      "output",
+      "projectPath",
+      "report",
+      "watch",
+      "debug");
+
+  /**
+   * 不需要值的選項
+   */
+  private static final Set<String> FLAGS = Set.of("watch", "debug");
+
+  private static final String USAGE = """
+      Usage: generator-cli generate --name <name> --packageName <package> [options]
+
+        --buildTool <GRADLE>              default GRADLE
+        --groupId <groupId>               default com.example
+        --artifactId <artifactId>         default <name>
+        --description <text>              default "Demo project for Spring Boot"
+        --jvmVersion <version>            default 17
+        --runtime <CLOUDRUN|KUBERNETES>   default CLOUDRUN
+        --openapiFilePath <file>          skip API generation when omitted
+        --dbUrl <url> --dbUsername <user> --dbPassword <password>
+        --schemaFile <ddl.sql>            read the schema from a PostgreSQL DDL file instead of a database
+                                          skip repository and schema generation when neither is given
+        --projectPath <dir>               default ./<name>, regenerates changed phases when it exists
+        --archive <ZIP|TAR>               stream an archive instead of writing a directory
+        --output <file|->                 archive file, - for stdout
+        --report <file|->                 write the generation report as JSON
+        --watch                           keep running and regenerate the changed phases
+                                          whenever the OpenAPI file or schema changes
+        --debug                           print the stack trace when generation fails
+        --<spring.property>=<value>       passed through to Spring, e.g. --cli.cache.enabled=true
+
+      Exit status: 0 success, 1 generation failed, 2 invalid arguments
+      """;
+
+  private DirectLauncher() {}
+
+  /**
+   * @param args 不含 generate 的其餘參數
+   * @return 行程結束代碼
+   */
+  public static int run(String[] args) {
+    Map<String, String> options = new LinkedHashMap<>();
+    List<String> springArgs = new ArrayList<>();
+    BatchProjectVo project;
+    boolean watch;
+    boolean debug;
+    try {
+      if (parse(args, options, springArgs)) {
+        System.out.print(USAGE);
+        return EXIT_OK;
+      }
+      watch = flag(options, "watch");
+      debug = flag(options, "debug");
+      project = toProject(options, watch);
+    } catch (IllegalArgumentException e) {
+      System.err.println("generate: " + e.getMessage());
+      System.err.println("Run 'generator-cli generate --help' for usage.");
+      return EXIT_USAGE;
+    }
+
+    SpringApplication application = new SpringApplication(GeneratorCliApplication.class);
+    application.setWebApplicationType(WebApplicationType.NONE);
+    application.setAdditionalProfiles(PROFILE);
+    // Spring 設定放在最優先的 property source，不當成應用程式參數：
+    // 原生執行檔的 Spring Shell runner 在建置時就已建立，會把參數當成指令執行
+    StandardEnvironment environment = new StandardEnvironment();
+    environment.getPropertySources().addFirst(
+        new SimpleCommandLinePropertySource(springArgs.toArray(String[]::new)));
+    application.setEnvironment(environment);
+    String report = options.get("report");
+    try (ConfigurableApplicationContext context = application.run()) {
+      CreateProjectCommand createProjectCommand = context
+          .getBean(GeneratorMapper.class)
+          .toCreateProjectCommand(
+              ObjectUtils.isEmpty(project.archive())
+                  ? Path.of(project.projectPath())
+                  : Path.of(project.name()),
+              project.buildTool(),
+              project.groupId(),
+              project.artifactId(),
+              project.name(),
+              project.description(),
+              project.packageName(),
+              project.jvmVersion(),
+              project.openapiFilePath(),
+              project.dbUrl(),
+              project.dbUsername(),
+              project.dbPassword(),
+              project.schemaFilePath(),
+              project.runtime());
+      if (watch) {
+        // 直到行程被中斷才結束，報告為最近一次產生的結果
+        context.getBean(ProjectWatcher.class).watch(
+            createProjectCommand,
+            generationReportVo -> ProjectGenerator.writeReport(generationReportVo, report));
+        return EXIT_OK;
+      }
+      ProjectService projectService = context.getBean(ProjectService.class);
+      GenerationReportVo generationReportVo = ObjectUtils.isEmpty(project.archive())
+          ? projectService.create(createProjectCommand)
+          : ProjectGenerator.writeArchive(
+              projectService,
+              createProjectCommand,
+              project.archive(),
+              project.output());
+      ProjectGenerator.writeReport(generationReportVo, report);
+      return EXIT_OK;
+    } catch (Exception e) {
+      // context 可能尚未建立，log 不一定已設定，直接輸出到 stderr
+      System.err.println("generate: " + Objects.requireNonNullElse(
+          e.getMessage(),
+          e.getClass().getName()));
+      // 預設只輸出訊息，--debug 時才輸出完整的 stack trace
+      if (debug) {
+        e.printStackTrace();
+      }
+      return EXIT_FAILED;
+    }
+  }
+
+  /**
+   * 支援 --key=value 與 --key value 兩種寫法，FLAGS 中的選項不需要值
+   *
+   * @return 要求顯示說明
+   */
+  static boolean parse(
+      String[] args,
+      Map<String, String> options,
+      List<String> springArgs) {
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if ("--help".equals(arg) || "-h".equals(arg)) {
+        return true;
+      }
+      if (!arg.startsWith("--") || arg.length() == 2) {
+        throw new IllegalArgumentException("unexpected argument '" + arg + "'");
+      }
+      int separator = arg.indexOf('=');
+      String key = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+      String value;
+      if (separator >= 0) {
+        value = arg.substring(separator + 1);
+      } else if (FLAGS.contains(key)) {
+        value = "true";
+      } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+        value = args[++i];
+      } else {
+        throw new IllegalArgumentException("missing value for --" + key);
+      }
+      if (key.contains(".")) {
+        springArgs.add("--" + key + "=" + value);
+      } else if (!OPTIONS.contains(key)) {
+        throw new IllegalArgumentException("unknown option --" + key);
+      } else if (options.put(key, value) != null) {
+        throw new IllegalArgumentException("duplicate option --" + key);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 檢查所有選項並補上預設值，與 batch 檔案中的專案定義相同
+   */
+  static BatchProjectVo toProject(Map<String, String> options, boolean watch) {
+    String name = required(options, "name");
+    String packageName = required(options, "packageName");
+
+    String openapiFilePath = options.get("openapiFilePath");
+    if (StringUtils.hasText(openapiFilePath) && !Files.isRegularFile(Path.of(openapiFilePath))) {
+      throw new IllegalArgumentException("OpenAPI file not found: " + openapiFilePath);
+    }
+
+    String schemaFile = options.get("schemaFile");
+    if (StringUtils.hasText(schemaFile) && !Files.isRegularFile(Path.of(schemaFile))) {
+      throw new IllegalArgumentException("Schema file not found: " + schemaFile);
+    }
+
+    List<String> database = List.of("dbUrl", "dbUsername", "dbPassword");
+    long databaseOptions = database.stream().filter(key -> StringUtils.hasText(options.get(key))).count();
+    if (databaseOptions > 0 && databaseOptions < database.size()) {
+      throw new IllegalArgumentException("--dbUrl, --dbUsername and --dbPassword must be given together");
+    }
+    if (databaseOptions > 0 && StringUtils.hasText(schemaFile)) {
+      throw new IllegalArgumentException("--schemaFile cannot be combined with database options");
+    }
+
+    ArchiveFormatEnum archive = option(options, "archive", ArchiveFormatEnum::fromValue);
+    String output = options.get("output");
+    String projectPath = options.get("projectPath");
+    // 指定 --output 時預設輸出 zip
+    if (archive == null && StringUtils.hasText(output)) {
+      archive = ArchiveFormatEnum.ZIP;
+    }
+    if (archive != null && StringUtils.hasText(projectPath)) {
+      throw new IllegalArgumentException("--projectPath cannot be combined with --archive or --output");
+    }
+    if (watch) {
+      if (archive != null) {
+        throw new IllegalArgumentException("--watch cannot be combined with --archive or --output");
+      }
+      if (!StringUtils.hasText(openapiFilePath) && !StringUtils.hasText(schemaFile) && databaseOptions == 0) {
+        throw new IllegalArgumentException(
+            "--watch requires --openapiFilePath, --schemaFile or database options");
+      }
+    }
+    if (archive != null && !StringUtils.hasText(output)) {
+      output = name + archive.getExtension();
+    }
+
+    return new BatchProjectVo(
+        Objects.requireNonNullElse(
+            option(options, "buildTool", BuildToolEnum::fromValue),
+            BuildToolEnum.GRADLE),
+        options.getOrDefault("groupId", CreateProjectCommand.DEFAULT_GROUP_ID),
+        options.getOrDefault("artifactId", name),
+        name,
+        options.getOrDefault("description", CreateProjectCommand.DEFAULT_DESCRIPTION),
+        packageName,
+        options.getOrDefault("jvmVersion", CreateProjectCommand.DEFAULT_JVM_VERSION),
+        openapiFilePath,
+        options.get("dbUrl"),
+        options.get("dbUsername"),
+        options.get("dbPassword"),
+        schemaFile,
+        Objects.requireNonNullElse(
+            option(options, "runtime", RuntimeEnum::fromValue),
+            RuntimeEnum.CLOUDRUN),
+        StringUtils.hasText(projectPath) ? projectPath : name,
+        archive,
+        output);
+  }
+
+  private static String required(Map<String, String> options, String key) {
+    String value = options.get(key);
+    if (!StringUtils.hasText(value)) {
+      throw new IllegalArgumentException("missing required option --" + key);
+    }
+    return value;
+  }
+
+  /**
+   * FLAGS 中的選項只接受 true 或 false，避免 --watch=yes 之類的寫法被靜默當成關閉
+   */
+  private static boolean flag(Map<String, String> options, String key) {
+    String value = options.get(key);
+    if (value == null) {
+      return false;
+    }
+    return switch (value.toLowerCase(Locale.ROOT)) {
+      case "true" -> true;
+      case "false" -> false;
+      default -> throw new IllegalArgumentException("invalid value '" + value + "' for --" + key);
+    };
+  }
+
+  private static <T> T option(
+      Map<String, String> options,
+      String key,
+      Function<String, T> parser) {
+    String value = options.get(key);
+    if (!StringUtils.hasText(value)) {
+      return null;
+    }
+    try {
+      return parser.apply(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("invalid value '" + value + "' for --" + key);
+    }
+  }
+}
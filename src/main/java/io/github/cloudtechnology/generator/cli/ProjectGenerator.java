@@ -1,5 +1,12 @@
 package io.github.cloudtechnology.generator.cli;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -17,11 +24,15 @@ import org.springframework.shell.standard.AbstractShellComponent;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
 import io.github.cloudtechnology.generator.bo.BuildToolEnum;
 import io.github.cloudtechnology.generator.bo.RuntimeEnum;
 import io.github.cloudtechnology.generator.command.CreateProjectCommand;
 import io.github.cloudtechnology.generator.service.ProjectService;
+import io.github.cloudtechnology.generator.service.report.GenerationReport;
+import io.github.cloudtechnology.generator.service.watch.ProjectWatcher;
 import io.github.cloudtechnology.generator.transform.GeneratorMapper;
+import io.github.cloudtechnology.generator.vo.GenerationReportVo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,6 +51,7 @@ public class ProjectGenerator extends AbstractShellComponent {
 
   private final GeneratorMapper generatorMapper;
   private final ProjectService projectService;
+  private final ProjectWatcher projectWatcher;
 
   @Command(command = { "generator" })
   public void generator(
@@ -54,7 +66,13 @@ public class ProjectGenerator extends AbstractShellComponent {
       @Option(longNames = "dbUrl") String dbUrl,
       @Option(longNames = "dbUsername") String dbUsername,
       @Option(longNames = "dbPassword") String dbPassword,
-      @Option(longNames = "runtime") RuntimeEnum runtimeEnum) {
+      @Option(longNames = "schemaFile") String schemaFile,
+      @Option(longNames = "runtime") RuntimeEnum runtimeEnum,
+      @Option(longNames = "archive") ArchiveFormatEnum archiveFormatEnum,
+      @Option(longNames = "output") String output,
+      @Option(longNames = "projectPath") String projectPath,
+      @Option(longNames = "report") String report,
+      @Option(longNames = "watch") boolean watch) {
     if (ObjectUtils.isEmpty(buildToolEnum)) {
       String buildToolStr = this.promptForBuildTool();
       buildToolEnum = BuildToolEnum.valueOf(buildToolStr.toUpperCase());
@@ -62,21 +80,29 @@ public class ProjectGenerator extends AbstractShellComponent {
 
     groupId = StringUtils.hasText(groupId)
         ? groupId
-        : promptForInput("Please enter group id", "com.example");
+        : promptForInput(
+            "Please enter group id",
+            CreateProjectCommand.DEFAULT_GROUP_ID);
     artifactId = StringUtils.hasText(artifactId)
         ? artifactId
-        : promptForInput("Please enter artifact id", "demo");
+        : promptForInput(
+            "Please enter artifact id",
+            CreateProjectCommand.DEFAULT_NAME);
     name = StringUtils.hasText(name)
         ? name
-        : promptForInput("Please enter project name", "demo");
+        : promptForInput(
+            "Please enter project name",
+            CreateProjectCommand.DEFAULT_NAME);
     description = StringUtils.hasText(description)
         ? description
         : promptForInput(
             "Please enter project description",
-            "Demo project for Spring Boot");
+            CreateProjectCommand.DEFAULT_DESCRIPTION);
     packageName = StringUtils.hasText(packageName)
         ? packageName
-        : promptForInput("Please enter package name", "com.example.demo");
+        : promptForInput(
+            "Please enter package name",
+            CreateProjectCommand.DEFAULT_PACKAGE_NAME);
     jvmVersion = StringUtils.hasText(jvmVersion)
         ? jvmVersion
         : promptForJvmVersion();
@@ -85,29 +111,52 @@ public class ProjectGenerator extends AbstractShellComponent {
         : promptForInput(
             "Please enter OpenAPI file path",
             "/path/to/openapi.yaml");
-    dbUrl = StringUtils.hasText(dbUrl)
-        ? dbUrl
-        : promptForInput(
-            "Please enter database URL",
-            "jdbc:postgresql://localhost:5432/mydatabase");
-    dbUsername = StringUtils.hasText(dbUsername)
-        ? dbUsername
-        : promptForInput("Please enter database username", "myuser");
-    dbPassword = StringUtils.hasText(dbPassword)
-        ? dbPassword
-        : promptForSecretInput("Please enter database password", "secret");
+    // 指定 DDL 檔案時不連線資料庫，不需詢問連線資訊
+    if (!StringUtils.hasText(schemaFile)) {
+      dbUrl = StringUtils.hasText(dbUrl)
+          ? dbUrl
+          : promptForInput(
+              "Please enter database URL",
+              "jdbc:postgresql://localhost:5432/mydatabase");
+      dbUsername = StringUtils.hasText(dbUsername)
+          ? dbUsername
+          : promptForInput("Please enter database username", "myuser");
+      dbPassword = StringUtils.hasText(dbPassword)
+          ? dbPassword
+          : promptForSecretInput("Please enter database password", "secret");
+    }
     if (ObjectUtils.isEmpty(runtimeEnum)) {
       String runtimeStr = promptForRuntime();
       runtimeEnum = RuntimeEnum.valueOf(runtimeStr.toUpperCase());
     }
 
+    // 指定 --output 時預設輸出 zip
+    if (ObjectUtils.isEmpty(archiveFormatEnum) && StringUtils.hasText(output)) {
+      archiveFormatEnum = ArchiveFormatEnum.ZIP;
+    }
+    // 壓縮檔每次都完整產生，無法只重新產生有變動的階段
+    if (watch && !ObjectUtils.isEmpty(archiveFormatEnum)) {
+      log.error("--watch cannot be combined with --archive or --output");
+      return;
+    }
+
     CreateProjectCommand createProjectCommand = null;
     Path projectTempPath = null;
     try {
       // projectTempPath = Files.createTempDirectory("project_");
       Path userDirectoryPath = Paths.get("");
-      projectTempPath = userDirectoryPath.resolve(
-          Path.of(name + "-" + new Random().nextInt(1000)));
+      // 壓縮檔模式不會建立目錄，直接以專案名稱作為壓縮檔內的根目錄
+      if (!ObjectUtils.isEmpty(archiveFormatEnum)) {
+        projectTempPath = Path.of(name);
+      } else if (StringUtils.hasText(projectPath)) {
+        // 固定的專案目錄，重複執行時只重新產生有變動的部分
+        projectTempPath = Path.of(projectPath);
+      } else {
+        do {
+          projectTempPath = userDirectoryPath.resolve(
+              Path.of(name + "-" + new Random().nextInt(1000)));
+        } while (Files.exists(projectTempPath));
+      }
 
       createProjectCommand = generatorMapper.toCreateProjectCommand(
           projectTempPath,
@@ -122,15 +171,68 @@ public class ProjectGenerator extends AbstractShellComponent {
           dbUrl,
           dbUsername,
           dbPassword,
+          schemaFile,
           runtimeEnum);
-      projectService.create(createProjectCommand);
-      //
+      if (watch) {
+        // 直到 Ctrl+C 結束，報告為最近一次產生的結果
+        projectWatcher.watch(
+            createProjectCommand,
+            generationReportVo -> writeReport(generationReportVo, report));
+        return;
+      }
+      GenerationReportVo generationReportVo = ObjectUtils.isEmpty(archiveFormatEnum)
+          ? projectService.create(createProjectCommand)
+          : writeArchive(projectService, createProjectCommand, archiveFormatEnum, output);
+      writeReport(generationReportVo, report);
 
     } catch (Exception e) {
       log.error("", e);
     }
   }
 
+  /**
+   * 各階段耗時與輸出量，- 表示 JSON 輸出到 stdout，與 DirectLauncher 共用
+   */
+  static void writeReport(GenerationReportVo generationReportVo, String report) {
+    if (!StringUtils.hasText(report)) {
+      return;
+    }
+    log.info("📊 產生報告\n{}", GenerationReport.toTable(generationReportVo));
+    try {
+      GenerationReport.writeJson(generationReportVo, report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 依 --output 寫入壓縮檔，- 表示 stdout，與 DirectLauncher 共用
+   */
+  static GenerationReportVo writeArchive(
+      ProjectService projectService,
+      CreateProjectCommand createProjectCommand,
+      ArchiveFormatEnum archiveFormatEnum,
+      String output) throws Exception {
+    if ("-".equals(output)) {
+      // 直接寫入 stdout 的 file descriptor，System.out 已在啟動時導向 stderr
+      OutputStream outputStream = new BufferedOutputStream(
+          new FileOutputStream(FileDescriptor.out));
+      GenerationReportVo generationReportVo = projectService.createArchive(
+          createProjectCommand,
+          archiveFormatEnum,
+          outputStream);
+      outputStream.flush();
+      return generationReportVo;
+    }
+    Path archivePath = StringUtils.hasText(output)
+        ? Path.of(output)
+        : Path.of(createProjectCommand.getName() + archiveFormatEnum.getExtension());
+    return projectService.createArchive(
+        createProjectCommand,
+        archiveFormatEnum,
+        archivePath);
+  }
+
   private String promptForBuildTool() {
     return selectFromOptions(
         "Please choose a build tool",
@@ -154,8 +256,8 @@ public class ProjectGenerator extends AbstractShellComponent {
   private String promptForJvmVersion() {
     return selectFromOptions(
         "Please choose a Java version",
-        List.of("17"),
-        "17");
+        List.of(CreateProjectCommand.DEFAULT_JVM_VERSION),
+        CreateProjectCommand.DEFAULT_JVM_VERSION);
   }
 
   private String selectFromOptions(
@@ -6,11 +6,21 @@ import java.nio.file.Path;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
+import org.springframework.util.StringUtils;
 
 @Getter
 @Builder
 public class CreateProjectCommand {
 
+  /**
+   * 未指定時的預設值，CLI、批次檔與 HTTP API 共用
+   */
+  public static final String DEFAULT_GROUP_ID = "com.example";
+  public static final String DEFAULT_NAME = "demo";
+  public static final String DEFAULT_DESCRIPTION = "Demo project for Spring Boot";
+  public static final String DEFAULT_PACKAGE_NAME = "com.example.demo";
+  public static final String DEFAULT_JVM_VERSION = "17";
+
   Path projectTempPath;
   /**
    * Build type
@@ -37,8 +47,23 @@ public class CreateProjectCommand {
   String dbUrl;
   String dbUsername;
   String dbPassword;
+  /**
+   * 沒有資料庫時改為解析的 DDL 檔案
+   */
+  Path schemaFile;
   /**
    * 執行環境
    */
   RuntimeEnum runtime;
+
+  /**
+   * 連線資訊齊全時才讀取資料庫，否則改用 DDL 檔案或略過 schema 相關階段
+   */
+  public boolean hasDatabase() {
+    return (
+      StringUtils.hasText(dbUrl) &&
+      StringUtils.hasText(dbUsername) &&
+      StringUtils.hasText(dbPassword)
+    );
+  }
 }
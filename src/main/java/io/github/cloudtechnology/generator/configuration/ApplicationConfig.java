@@ -1,6 +1,9 @@
 package io.github.cloudtechnology.generator.configuration;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.aot.hint.ExecutableMode;
@@ -9,10 +12,30 @@ import org.springframework.aot.hint.RuntimeHints;
 import org.springframework.aot.hint.RuntimeHintsRegistrar;
 import org.springframework.aot.hint.TypeHint;
 import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.ImportRuntimeHints;
 
 @Configuration
 @RequiredArgsConstructor
 @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
-public class ApplicationConfig {}
+public class ApplicationConfig {
+
+  /**
+   * 產生流程各階段共用的執行緒池
+   *
+   * 使用平台執行緒而不是虛擬執行緒，ThreadMXBean 才能量測各階段的 CPU 時間與配置的記憶體
+   */
+  @Bean(name = "generatorTaskExecutor", destroyMethod = "shutdown")
+  public ExecutorService generatorTaskExecutor() {
+    AtomicInteger sequence = new AtomicInteger();
+    return Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(
+        runnable,
+        "generator-phase-" + sequence.incrementAndGet()
+      );
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
@@ -1,7 +1,10 @@
 package io.github.cloudtechnology.generator.configuration.properties;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import lombok.Data;
@@ -14,6 +17,162 @@ import lombok.experimental.FieldDefaults;
 @ConfigurationProperties(prefix = "cli")
 public class ApplicationProperties {
 
+  /**
+   * 產生流程讀取資料庫時使用的連線池設定
+   */
+  Database database = new Database();
+
+  /**
+   * 完整產生結果的本機快取
+   */
+  Cache cache = new Cache();
+
+  /**
+   * 產生專案時複製的靜態檔案
+   */
+  Assets assets = new Assets();
+
+  /**
+   * 解析後的 OpenAPI 模型快取
+   */
+  ModelCache modelCache = new ModelCache();
+
+  /**
+   * --watch 模式的監看設定
+   */
+  Watch watch = new Watch();
+
+  @Data
+  @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+  public static class Database {
+
+    /**
+     * 連線池最大連線數，產生流程只有少數階段會同時查詢資料庫
+     */
+    int maximumPoolSize = 2;
+
+    /**
+     * 從連線池取得連線的最長等待時間
+     */
+    Duration connectionTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 建立 TCP 連線的逾時時間
+     */
+    Duration connectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 讀取網路封包的逾時時間，避免資料庫無回應時永久卡住
+     */
+    Duration socketTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 單一 SQL 的執行逾時時間 (PostgreSQL statement_timeout)
+     */
+    Duration statementTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 每條連線快取的 prepared statement 數量
+     */
+    int preparedStatementCacheQueries = 256;
+
+    /**
+     * 同一 SQL 執行幾次後改用 server-side prepared statement
+     */
+    int prepareThreshold = 1;
+  }
+
+  @Data
+  @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+  public static class Cache {
+
+    /**
+     * 是否啟用快取，只用於輸出到全新目錄的產生流程
+     */
+    boolean enabled = false;
+
+    /**
+     * 快取目錄
+     */
+    Path directory = Path.of(
+      System.getProperty("user.home"),
+      ".cache",
+      "generator-cli"
+    );
+
+    /**
+     * 快取總大小上限，超過時刪除最久未使用的項目
+     */
+    DataSize maxSize = DataSize.ofMegabytes(512);
+
+    /**
+     * 命中時以 hard link 還原檔案，不複製內容；
+     * 產生的檔案與快取共用同一份資料，直接修改檔案內容會一併改到快取
+     */
+    boolean hardLink = false;
+  }
+
+  @Data
+  @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+  public static class Assets {
+
+    /**
+     * 本機靜態檔案庫，存放從執行檔取出的 static-assets.bin 與 hard link 使用的檔案
+     */
+    Path directory = Path.of(
+      System.getProperty("user.home"),
+      ".cache",
+      "generator-cli",
+      "assets"
+    );
+
+    /**
+     * 以 hard link 指向檔案庫中的同一份唯讀檔案，批次產生多個專案時不重複佔用磁碟；
+     * 只用於產生後不會修改的二進位檔 (gradle-wrapper.jar)，其餘靜態檔案照常複製
+     */
+    boolean hardLink = false;
+  }
+
+  @Data
+  @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+  public static class ModelCache {
+
+    /**
+     * 是否啟用，規格與引用的檔案都沒有改變時直接還原模型，不再解析
+     */
+    boolean enabled = true;
+
+    /**
+     * 快取目錄
+     */
+    Path directory = Path.of(
+      System.getProperty("user.home"),
+      ".cache",
+      "generator-cli",
+      "openapi-models"
+    );
+
+    /**
+     * 保留的模型數量上限，超過時刪除最久未使用的項目
+     */
+    int maxEntries = 32;
+  }
+
+  @Data
+  @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+  public static class Watch {
+
+    /**
+     * 最後一次檔案變動後等待的時間，期間內連續的儲存合併成一次產生
+     */
+    Duration debounce = Duration.ofMillis(300);
+
+    /**
+     * 以資料庫作為 schema 來源時讀取 schema 指紋的間隔，資料庫沒有變更通知
+     */
+    Duration schemaPollInterval = Duration.ofSeconds(5);
+  }
+
   // /**
   //  * 編譯工具
   //  */
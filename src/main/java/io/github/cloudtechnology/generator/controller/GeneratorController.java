@@ -0,0 +1,190 @@
+package io.github.cloudtechnology.generator.controller;
+
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import io.github.cloudtechnology.generator.bo.BuildToolEnum;
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.command.CreateProjectCommand;
+import io.github.cloudtechnology.generator.service.ProjectService;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
+import io.github.cloudtechnology.generator.transform.GeneratorMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 常駐模式的產生 API，只在 server profile 啟用
+ *
+ * 產生器與已編譯的模板常駐在同一個 JVM，每個請求不需要重新啟動與載入類別，
+ * 產生結果直接串流成壓縮檔回應，不在伺服器上留下專案目錄。
+ * 不接受資料庫連線參數，避免呼叫端讓伺服器連線到任意主機，schema 只能以上傳的 DDL 提供
+ */
+@Slf4j
+@Profile("server")
+@RestController
+@RequestMapping("/api/projects")
+@RequiredArgsConstructor
+public class GeneratorController {
+
+  /**
+   * name 會成為壓縮檔內的根目錄與下載的檔名，artifactId 會寫進建置檔，
+   * 只接受 Maven artifactId 慣用的字元，避免路徑穿越與破壞 Content-Disposition
+   */
+  private static final Pattern IDENTIFIER = Pattern.compile(
+    "[A-Za-z0-9][A-Za-z0-9._-]{0,63}"
+  );
+
+  /**
+   * packageName 會轉成原始碼目錄
+   */
+  private static final Pattern PACKAGE_NAME = Pattern.compile(
+    "[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*"
+  );
+
+  private final GeneratorMapper generatorMapper;
+  private final ProjectService projectService;
+
+  @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<StreamingResponseBody> generate(
+    @RequestParam(defaultValue = "GRADLE") BuildToolEnum buildTool,
+    @RequestParam(
+      defaultValue = CreateProjectCommand.DEFAULT_GROUP_ID
+    ) String groupId,
+    @RequestParam(required = false) String artifactId,
+    @RequestParam(defaultValue = CreateProjectCommand.DEFAULT_NAME) String name,
+    @RequestParam(
+      defaultValue = CreateProjectCommand.DEFAULT_DESCRIPTION
+    ) String description,
+    @RequestParam(
+      defaultValue = CreateProjectCommand.DEFAULT_PACKAGE_NAME
+    ) String packageName,
+    @RequestParam(
+      defaultValue = CreateProjectCommand.DEFAULT_JVM_VERSION
+    ) String jvmVersion,
+    @RequestParam(defaultValue = "CLOUDRUN") RuntimeEnum runtime,
+    @RequestParam(defaultValue = "ZIP") ArchiveFormatEnum archive,
+    @RequestPart(name = "openapi", required = false) MultipartFile openapi,
+    @RequestPart(name = "schemaFile", required = false) MultipartFile schemaFile
+  ) throws IOException {
+    validate("name", name, IDENTIFIER);
+    if (StringUtils.hasText(artifactId)) {
+      validate("artifactId", artifactId, IDENTIFIER);
+    }
+    validate("packageName", packageName, PACKAGE_NAME);
+    // OpenAPI Generator 與 DDL 解析只接受檔案路徑，上傳的檔案先寫到暫存目錄，回應結束後刪除
+    Path specDirectory = Files.createTempDirectory("openapi-spec-");
+    try {
+      String openapiFilePath = transfer(openapi, specDirectory, "openapi.yaml");
+      // 放在獨立的子目錄，與規格同名時不會互相覆蓋
+      String schemaFilePath = transfer(
+        schemaFile,
+        Files.createDirectory(specDirectory.resolve("schema")),
+        "schema.sql"
+      );
+      CreateProjectCommand createProjectCommand = generatorMapper.toCreateProjectCommand(
+        Path.of(name),
+        buildTool,
+        groupId,
+        StringUtils.hasText(artifactId) ? artifactId : name,
+        name,
+        description,
+        packageName,
+        jvmVersion,
+        openapiFilePath,
+        null,
+        null,
+        null,
+        schemaFilePath,
+        runtime
+      );
+      StreamingResponseBody body = outputStream -> {
+        try {
+          projectService.createArchive(
+            createProjectCommand,
+            archive,
+            outputStream
+          );
+        } catch (IOException | RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          StagingTree.deleteRecursively(specDirectory);
+        }
+      };
+      return ResponseEntity
+        .ok()
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .header(
+          HttpHeaders.CONTENT_DISPOSITION,
+          ContentDisposition
+            .attachment()
+            .filename(name + archive.getExtension())
+            .build()
+            .toString()
+        )
+        .body(body);
+    } catch (IOException | RuntimeException e) {
+      StagingTree.deleteRecursively(specDirectory);
+      throw e;
+    }
+  }
+
+  /**
+   * @return 寫入的檔案路徑，沒有上傳時為 null
+   */
+  private static String transfer(
+    MultipartFile multipartFile,
+    Path directory,
+    String defaultName
+  ) throws IOException {
+    if (multipartFile == null || multipartFile.isEmpty()) {
+      return null;
+    }
+    Path file = directory.resolve(defaultName);
+    String originalFilename = multipartFile.getOriginalFilename();
+    if (StringUtils.hasText(originalFilename)) {
+      try {
+        Path fileName = Path.of(originalFilename).getFileName();
+        // 只保留檔名，. 或 .. 之類會離開暫存目錄的檔名改用預設的檔名
+        if (
+          fileName != null &&
+          directory.equals(directory.resolve(fileName).normalize().getParent())
+        ) {
+          file = directory.resolve(fileName);
+        }
+      } catch (InvalidPathException e) {
+        log.debug("⚠️ 忽略無效的上傳檔名 {}", originalFilename);
+      }
+    }
+    multipartFile.transferTo(file);
+    return file.toString();
+  }
+
+  private static void validate(String parameter, String value, Pattern pattern) {
+    if (!pattern.matcher(value).matches()) {
+      throw new ResponseStatusException(
+        HttpStatus.BAD_REQUEST,
+        "Invalid " + parameter + ": " + value
+      );
+    }
+  }
+}
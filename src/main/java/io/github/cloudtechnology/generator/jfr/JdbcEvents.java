@@ -0,0 +1,172 @@
+package io.github.cloudtechnology.generator.jfr;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * 包裝 JDBC 連線，每次 DatabaseMetaData 查詢與 SQL 執行都記錄一筆 MetadataQueryEvent
+ *
+ * 只用於讀取資料庫目錄的連線，查詢次數少，動態代理的成本可以忽略
+ */
+public final class JdbcEvents {
+
+  private static final Set<String> EXECUTE_METHODS = Set.of(
+    "execute",
+    "executeQuery",
+    "executeUpdate",
+    "executeLargeUpdate"
+  );
+
+  /**
+   * DatabaseMetaData 中第三個參數為資料表名稱的查詢，例如 getColumns(catalog, schema, table, column)
+   */
+  private static final Set<String> TABLE_METHODS = Set.of(
+    "getTables",
+    "getColumns",
+    "getPrimaryKeys",
+    "getImportedKeys",
+    "getExportedKeys",
+    "getIndexInfo",
+    "getTablePrivileges",
+    "getColumnPrivileges",
+    "getBestRowIdentifier",
+    "getVersionColumns"
+  );
+
+  private JdbcEvents() {}
+
+  public static Connection instrument(Connection connection) {
+    return proxy(
+      Connection.class,
+      connection,
+      (method, args, result) -> {
+        if (result instanceof DatabaseMetaData metaData) {
+          return instrument(metaData);
+        }
+        if (result instanceof PreparedStatement statement) {
+          return instrument(statement, (String) args[0]);
+        }
+        if (result instanceof Statement statement) {
+          return instrument(statement);
+        }
+        return result;
+      }
+    );
+  }
+
+  private static DatabaseMetaData instrument(DatabaseMetaData metaData) {
+    return recording(
+      DatabaseMetaData.class,
+      metaData,
+      (method, args) ->
+        method.getReturnType() == ResultSet.class
+          ? new String[] {
+            "DatabaseMetaData." + method.getName(),
+            TABLE_METHODS.contains(method.getName()) && args.length > 2
+              ? (String) args[2]
+              : null,
+          }
+          : null
+    );
+  }
+
+  private static Statement instrument(Statement statement) {
+    return recording(
+      Statement.class,
+      statement,
+      (method, args) ->
+        EXECUTE_METHODS.contains(method.getName()) &&
+          args != null &&
+          args.length > 0 &&
+          args[0] instanceof String sql
+          ? new String[] { sql, null }
+          : null
+    );
+  }
+
+  private static PreparedStatement instrument(
+    PreparedStatement statement,
+    String sql
+  ) {
+    return recording(
+      PreparedStatement.class,
+      statement,
+      (method, args) ->
+        EXECUTE_METHODS.contains(method.getName())
+          ? new String[] { sql, null }
+          : null
+    );
+  }
+
+  /**
+   * @param describe 回傳 {query, table} 表示此呼叫要記錄事件，null 表示直接轉呼叫
+   */
+  private static <T> T recording(
+    Class<T> type,
+    T target,
+    QueryDescriber describe
+  ) {
+    return proxy(
+      type,
+      target,
+      (method, args, result) -> result,
+      describe
+    );
+  }
+
+  private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+    return proxy(type, target, mapper, (method, args) -> null);
+  }
+
+  private static <T> T proxy(
+    Class<T> type,
+    T target,
+    ResultMapper mapper,
+    QueryDescriber describe
+  ) {
+    InvocationHandler handler = (proxy, method, args) -> {
+      String[] query = describe.describe(method, args);
+      MetadataQueryEvent event = null;
+      if (query != null) {
+        event = new MetadataQueryEvent();
+        event.begin();
+      }
+      try {
+        return mapper.map(method, args, method.invoke(target, args));
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      } finally {
+        if (event != null && event.shouldCommit()) {
+          event.query = query[0];
+          event.table = query[1];
+          event.commit();
+        }
+      }
+    };
+    return type.cast(
+      Proxy.newProxyInstance(
+        type.getClassLoader(),
+        new Class<?>[] { type },
+        handler
+      )
+    );
+  }
+
+  @FunctionalInterface
+  private interface ResultMapper {
+    Object map(Method method, Object[] args, Object result) throws Exception;
+  }
+
+  @FunctionalInterface
+  private interface QueryDescriber {
+    String[] describe(Method method, Object[] args);
+  }
+}
@@ -0,0 +1,27 @@
+package io.github.cloudtechnology.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 讀取資料庫目錄時執行的一次 JDBC 查詢
+ */
+@Name("io.github.cloudtechnology.generator.MetadataQuery")
+@Label("Metadata Query")
+@Category({ "Generator", "JDBC" })
+@Description("One JDBC query issued while reading the database catalog")
+@StackTrace(false)
+public class MetadataQueryEvent extends Event {
+
+  @Label("Query")
+  @Description("SQL text or DatabaseMetaData method")
+  public String query;
+
+  @Label("Table")
+  @Description("Table name pattern passed to DatabaseMetaData, if any")
+  public String table;
+}
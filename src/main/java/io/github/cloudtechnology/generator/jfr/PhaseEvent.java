@@ -0,0 +1,37 @@
+package io.github.cloudtechnology.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 產生流程中的一個階段，持續時間為階段執行的時間
+ */
+@Name("io.github.cloudtechnology.generator.Phase")
+@Label("Generation Phase")
+@Category({ "Generator", "Phase" })
+@Description("One phase of a project generation run")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+  @Label("Project")
+  public String project;
+
+  @Label("Phase")
+  public String phase;
+
+  @Label("Skipped")
+  @Description("Skipped because its inputs did not change")
+  public boolean skipped;
+
+  @Label("Files")
+  public int files;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+}
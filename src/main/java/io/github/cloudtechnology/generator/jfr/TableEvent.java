@@ -0,0 +1,32 @@
+package io.github.cloudtechnology.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JOOQ 產生器處理單一資料表的工作
+ */
+@Name("io.github.cloudtechnology.generator.Table")
+@Label("Table")
+@Category({ "Generator", "jOOQ" })
+@Description("Per-table work done by the jOOQ code generators")
+@StackTrace(false)
+public class TableEvent extends Event {
+
+  @Label("Step")
+  @Description("collectTableMetadata or generatePojo")
+  public String step;
+
+  @Label("Table")
+  public String table;
+
+  @Label("Bytes")
+  @Description("Size of the generated source file, 0 when nothing is written")
+  @DataAmount
+  public long bytes;
+}
@@ -0,0 +1,30 @@
+package io.github.cloudtechnology.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 以 Mustache 模板產生一個檔案
+ */
+@Name("io.github.cloudtechnology.generator.Template")
+@Label("Template Render")
+@Category({ "Generator", "Template" })
+@Description("One Mustache template rendered into a project file")
+@StackTrace(false)
+public class TemplateEvent extends Event {
+
+  @Label("Template")
+  public String template;
+
+  @Label("Output")
+  public String output;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+}
@@ -1,7 +1,6 @@
 package io.github.cloudtechnology.generator.jooq;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -14,7 +13,6 @@ import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
-import org.apache.commons.io.IOUtils;
 import org.jooq.Name;
 import org.jooq.codegen.GeneratorStrategy.Mode;
 import org.jooq.codegen.JavaGenerator;
@@ -34,8 +32,9 @@ import org.jooq.meta.UniqueKeyDefinition;
 import org.jooq.tools.StringUtils;
 
 import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
 
+import io.github.cloudtechnology.generator.jfr.TableEvent;
+import io.github.cloudtechnology.generator.service.template.TemplateRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -47,10 +46,36 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class JooqJavaGenerator extends JavaGenerator {
 
+  /**
+   * jOOQ 以反射建立產生器，無法注入 Spring 的 TemplateRegistry，
+   * 改為整個 JVM 共用一個，每個模板仍只編譯一次
+   */
+  private static final TemplateRegistry TEMPLATES = new TemplateRegistry(
+    Mustache.compiler()
+  );
+
   private boolean scala;
   private boolean kotlin;
   private String visibility;
 
+  /**
+   * 每個資料表的 POJO 產生時記錄一筆 JFR TableEvent，包含產生的檔案大小
+   *
+   * @param table 資料表定義
+   */
+  @Override
+  protected void generatePojo(TableDefinition table) {
+    TableEvent event = new TableEvent();
+    event.begin();
+    super.generatePojo(table);
+    if (event.shouldCommit()) {
+      event.step = "generatePojo";
+      event.table = table.getName();
+      event.bytes = getFile(table, Mode.POJO).length();
+      event.commit();
+    }
+  }
+
   /**
    * 重寫generatePojo方法，用於生成搭配JPA注解的POJO類。
    * 此方法還負責生成對應的Repository類，以支持Spring Data JPA。
@@ -394,17 +419,10 @@ public class JooqJavaGenerator extends JavaGenerator {
                 )
               );
 
-              InputStream inputStream =
-                JooqJavaGenerator.class.getClassLoader()
-                  .getResourceAsStream(
-                    "templates/repository/JpaRepository.mustache"
-                  );
-              String templateText = IOUtils.toString(
-                inputStream,
-                StandardCharsets.UTF_8
+              String outputContent = TEMPLATES.render(
+                "templates/repository/JpaRepository.mustache",
+                repositoryVO
               );
-              Template template = Mustache.compiler().compile(templateText);
-              String outputContent = template.execute(repositoryVO);
 
               // Path repositoriePath = Paths.get(getStrategy().getTargetDirectory() +
               // File.separator
@@ -6,6 +6,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,8 @@ import org.jooq.meta.UniqueKeyDefinition;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.github.cloudtechnology.generator.jfr.TableEvent;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -31,6 +34,9 @@ import lombok.extern.slf4j.Slf4j;
  * 3. 輸出 JSON 格式的中間數據文件供其他生成器使用
  * 4. 遵循職責單一原則，不直接生成 Repository 文件
  * 
+ * 此類別不是 Spring bean，JOOQ GenerationTool 每次執行都會建立新的實例，
+ * 收集到的表資訊只屬於該次產生，同時產生多個專案時不會互相混用
+ * 
  * @author CloudTechnology Team
  * @version 2.0
  */
@@ -40,8 +46,26 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
     // 常量定義
     private static final String METADATA_FILE_NAME = "repository-metadata.json";
     
-    // 儲存收集到的表定義信息
-    private final List<TableMetadata> collectedTables = new ArrayList<>();
+    // 儲存收集到的表定義信息，只屬於本次 GenerationTool 執行
+    private final List<TableMetadata> collectedTables = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * 每個資料表的 POJO 產生時記錄一筆 JFR TableEvent，包含產生的檔案大小
+     * 
+     * @param table 資料表定義
+     */
+    @Override
+    protected void generatePojo(TableDefinition table) {
+        TableEvent event = new TableEvent();
+        event.begin();
+        super.generatePojo(table);
+        if (event.shouldCommit()) {
+            event.step = "generatePojo";
+            event.table = table.getName();
+            event.bytes = getFile(table, Mode.POJO).length();
+            event.commit();
+        }
+    }
 
     /**
      * POJO 類別生成完成後的處理邏輯
@@ -70,6 +94,8 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
      * @param out   Java 程式碼輸出器
      */
     private void collectTableMetadata(TableDefinition table, JavaWriter out) {
+        TableEvent event = new TableEvent();
+        event.begin();
         try {
             log.info("📊 收集資料表 {} 的元數據信息", table.getName());
             
@@ -101,6 +127,12 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
             
         } catch (Exception e) {
             log.error("❌ 收集資料表 {} 的元數據時發生錯誤", table.getName(), e);
+        } finally {
+            if (event.shouldCommit()) {
+                event.step = "collectTableMetadata";
+                event.table = table.getName();
+                event.commit();
+            }
         }
     }
 
@@ -109,6 +141,11 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
      * 只有在還沒有輸出過檔案的情況下才會輸出
      */
     private boolean metadataOutputted = false;
+
+    /**
+     * 最後一次寫入的元數據內容，Schema 與 Catalog 結尾都會觸發輸出，內容相同時不再重寫
+     */
+    private String writtenMetadata;
     
     private synchronized void tryOutputMetadata() {
         if (!metadataOutputted && !collectedTables.isEmpty()) {
@@ -134,28 +171,21 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
     }
 
     /**
-     * Schema 生成完成後的處理邏輯
-     * 作為備用的觸發點來確保 JSON 檔案被生成
+     * 不產生 schema 類別 (PublicEntity.java)，JOOQ 沒有對應的 Generate 設定，
+     * 專案只使用 POJO，不需要再寫出後由 JooqGenerator 捨棄
+     * 
+     * @param schema Schema 定義
      */
     @Override
-    protected void generateSchemaClassFooter(org.jooq.meta.SchemaDefinition schema, JavaWriter out) {
-        log.info("🔄 SimpleRepositoryGenerator.generateSchemaClassFooter() 被調用");
-        
-        // 執行父類邏輯
-        super.generateSchemaClassFooter(schema, out);
-        
-        // 嘗試輸出 JSON 檔案（如果還沒有輸出的話）
-        if (!collectedTables.isEmpty()) {
-            log.info("📋 在 Schema 完成後觸發元數據輸出");
-            outputRepositoryMetadata();
-        }
+    protected void generateSchema(org.jooq.meta.SchemaDefinition schema) {
+        log.debug("⏭️ 略過 schema 類別: {}", schema.getName());
     }
 
     /**
      * 輸出 Repository 元數據到 JSON 文件
      * 供 SpringRepositoryGenerator 使用
      */
-    private void outputRepositoryMetadata() {
+    private synchronized void outputRepositoryMetadata() {
         log.info("🔍 outputRepositoryMetadata() 被調用，已收集表數量: {}", collectedTables.size());
         
         if (collectedTables.isEmpty()) {
@@ -181,6 +211,11 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
             log.info("📄 JSON 內容長度: {} 字符", jsonContent.length());
             log.debug("📄 JSON 內容預覽: {}", jsonContent.substring(0, Math.min(200, jsonContent.length())));
             
+            if (jsonContent.equals(writtenMetadata)) {
+                log.info("⏭️ 元數據內容未變動，略過重新寫入: {}", metadataFilePath.toAbsolutePath());
+                return;
+            }
+            
             // 寫入文件
             Files.writeString(
                 metadataFilePath,
@@ -191,14 +226,10 @@ public class SimpleRepositoryGenerator extends JavaGenerator {
                 StandardOpenOption.WRITE
             );
             
-            // 驗證檔案是否成功寫入
-            if (Files.exists(metadataFilePath)) {
-                long fileSize = Files.size(metadataFilePath);
-                log.info("✅ Repository 元數據已輸出到: {} (檔案大小: {} bytes)", 
-                        metadataFilePath.toAbsolutePath(), fileSize);
-            } else {
-                log.error("❌ 檔案寫入後不存在: {}", metadataFilePath.toAbsolutePath());
-            }
+            writtenMetadata = jsonContent;
+            // Files.writeString 失敗時會拋出例外，不需再次檢查檔案
+            log.info("✅ Repository 元數據已輸出到: {} ({} 字符)", 
+                    metadataFilePath.toAbsolutePath(), jsonContent.length());
             
             log.info("📊 共包含 {} 個表的信息", collectedTables.size());
             
@@ -0,0 +1,222 @@
+package io.github.cloudtechnology.generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import io.github.cloudtechnology.generator.bo.BuildToolEnum;
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.command.CreateProjectCommand;
+import io.github.cloudtechnology.generator.transform.GeneratorMapper;
+import io.github.cloudtechnology.generator.vo.BatchProjectVo;
+import io.github.cloudtechnology.generator.vo.BatchResultVo;
+import io.github.cloudtechnology.generator.vo.GenerationReportVo;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * 在同一個行程內依批次檔產生多個專案
+ *
+ * 所有專案共用已載入的產生器類別與已編譯的模板，
+ * 由固定大小的 worker pool 同時產生，每個專案內部的階段仍由 PhaseScheduler 平行執行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchService {
+
+  private final ProjectService projectService;
+  private final GeneratorMapper generatorMapper;
+
+  /**
+   * @param batchFile   YAML 或 JSON 格式的專案清單，相對路徑以此檔所在目錄為基準
+   * @param parallelism 同時產生的專案數
+   */
+  public List<BatchResultVo> generate(Path batchFile, int parallelism)
+    throws Exception {
+    Path baseDirectory = batchFile.toAbsolutePath().getParent();
+    List<BatchProjectVo> projects = this.read(batchFile);
+    List<Path> outputs = this.validate(baseDirectory, projects);
+    log.info(
+      "📚 批次產生 {} 個專案，同時執行 {} 個",
+      projects.size(),
+      parallelism
+    );
+
+    AtomicInteger sequence = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(
+      parallelism,
+      runnable -> {
+        Thread thread = new Thread(
+          runnable,
+          "batch-worker-" + sequence.incrementAndGet()
+        );
+        thread.setDaemon(true);
+        return thread;
+      }
+    );
+    try {
+      List<Future<BatchResultVo>> futures = new ArrayList<>();
+      for (int i = 0; i < projects.size(); i++) {
+        BatchProjectVo project = projects.get(i);
+        Path output = outputs.get(i);
+        futures.add(
+          workers.submit(() -> this.generate(baseDirectory, project, output))
+        );
+      }
+      List<BatchResultVo> results = new ArrayList<>();
+      for (Future<BatchResultVo> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private BatchResultVo generate(
+    Path baseDirectory,
+    BatchProjectVo project,
+    Path output
+  ) {
+    long start = System.nanoTime();
+    try {
+      CreateProjectCommand createProjectCommand = generatorMapper.toCreateProjectCommand(
+        ObjectUtils.isEmpty(project.archive())
+          ? output
+          : Path.of(project.name()),
+        Objects.requireNonNullElse(project.buildTool(), BuildToolEnum.GRADLE),
+        Objects.requireNonNullElse(
+          project.groupId(),
+          CreateProjectCommand.DEFAULT_GROUP_ID
+        ),
+        Objects.requireNonNullElse(project.artifactId(), project.name()),
+        project.name(),
+        Objects.requireNonNullElse(
+          project.description(),
+          CreateProjectCommand.DEFAULT_DESCRIPTION
+        ),
+        project.packageName(),
+        Objects.requireNonNullElse(
+          project.jvmVersion(),
+          CreateProjectCommand.DEFAULT_JVM_VERSION
+        ),
+        StringUtils.hasText(project.openapiFilePath())
+          ? baseDirectory.resolve(project.openapiFilePath()).toString()
+          : null,
+        project.dbUrl(),
+        project.dbUsername(),
+        project.dbPassword(),
+        StringUtils.hasText(project.schemaFilePath())
+          ? baseDirectory.resolve(project.schemaFilePath()).toString()
+          : null,
+        Objects.requireNonNullElse(project.runtime(), RuntimeEnum.CLOUDRUN)
+      );
+      GenerationReportVo report = ObjectUtils.isEmpty(project.archive())
+        ? projectService.create(createProjectCommand)
+        : projectService.createArchive(
+          createProjectCommand,
+          project.archive(),
+          output
+        );
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      log.info("✅ {} 產生完成，耗時 {} ms", project.name(), elapsedMillis);
+      return new BatchResultVo(
+        project.name(),
+        output,
+        elapsedMillis,
+        null,
+        report
+      );
+    } catch (Exception e) {
+      log.error("❌ {} 產生失敗", project.name(), e);
+      return new BatchResultVo(
+        project.name(),
+        output,
+        (System.nanoTime() - start) / 1_000_000,
+        Objects.requireNonNullElse(e.getMessage(), e.getClass().getName()),
+        null
+      );
+    }
+  }
+
+  private List<BatchProjectVo> read(Path batchFile) throws IOException {
+    String fileName = batchFile.getFileName().toString().toLowerCase();
+    MapperBuilder<?, ?> builder = fileName.endsWith(".json")
+      ? JsonMapper.builder()
+      : YAMLMapper.builder();
+    ObjectMapper objectMapper = builder
+      .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+      .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+      .build();
+    List<BatchProjectVo> projects = objectMapper.readValue(
+      batchFile.toFile(),
+      new TypeReference<List<BatchProjectVo>>() {}
+    );
+    return projects == null ? List.of() : projects;
+  }
+
+  /**
+   * 開始產生前先檢查所有專案，避免跑到一半才因設定錯誤失敗
+   *
+   * @return 每個專案的輸出路徑
+   */
+  private List<Path> validate(
+    Path baseDirectory,
+    List<BatchProjectVo> projects
+  ) {
+    List<Path> outputs = new ArrayList<>();
+    Set<Path> seen = new HashSet<>();
+    for (BatchProjectVo project : projects) {
+      if (!StringUtils.hasText(project.name())) {
+        throw new IllegalArgumentException("Batch project requires 'name'");
+      }
+      if (!StringUtils.hasText(project.packageName())) {
+        throw new IllegalArgumentException(
+          "Batch project '" + project.name() + "' requires 'packageName'"
+        );
+      }
+      Path output;
+      if (!ObjectUtils.isEmpty(project.archive())) {
+        output =
+          baseDirectory.resolve(
+            StringUtils.hasText(project.output())
+              ? project.output()
+              : project.name() + project.archive().getExtension()
+          );
+      } else {
+        output =
+          baseDirectory.resolve(
+            StringUtils.hasText(project.projectPath())
+              ? project.projectPath()
+              : project.name()
+          );
+      }
+      output = output.normalize();
+      if (!seen.add(output)) {
+        throw new IllegalArgumentException(
+          "Batch projects share the same output: " + output
+        );
+      }
+      outputs.add(output);
+    }
+    return outputs;
+  }
+}
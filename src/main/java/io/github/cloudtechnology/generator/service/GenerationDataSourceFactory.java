@@ -0,0 +1,69 @@
+package io.github.cloudtechnology.generator.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.github.cloudtechnology.generator.vo.DatabaseVo;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 為每一次產生流程建立獨立的連線池，所有需要資料庫的階段都從這裡借用連線，
+ * 由 ProjectService 在流程結束 (不論成功或失敗) 時關閉
+ * https://jdbc.postgresql.org/documentation/use/#connection-parameters
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenerationDataSourceFactory {
+
+  private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+  private final ApplicationProperties applicationProperties;
+
+  public HikariDataSource create(DatabaseVo databaseVo) {
+    ApplicationProperties.Database database =
+      applicationProperties.getDatabase();
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("generator-" + POOL_SEQUENCE.incrementAndGet());
+    config.setJdbcUrl(databaseVo.dbUrl());
+    config.setUsername(databaseVo.dbUsername());
+    config.setPassword(databaseVo.dbPassword());
+    config.setMaximumPoolSize(database.getMaximumPoolSize());
+    config.setMinimumIdle(0);
+    config.setConnectionTimeout(database.getConnectionTimeout().toMillis());
+    // 第一次借用連線時才建立，讓資料庫握手與其他階段重疊
+    config.setInitializationFailTimeout(-1);
+    config.setReadOnly(true);
+    // pgjdbc 連線參數: statement 快取與網路/查詢逾時
+    config.addDataSourceProperty("ApplicationName", "generator-cli");
+    config.addDataSourceProperty(
+      "prepareThreshold",
+      String.valueOf(database.getPrepareThreshold())
+    );
+    config.addDataSourceProperty(
+      "preparedStatementCacheQueries",
+      String.valueOf(database.getPreparedStatementCacheQueries())
+    );
+    config.addDataSourceProperty(
+      "connectTimeout",
+      String.valueOf(database.getConnectTimeout().toSeconds())
+    );
+    config.addDataSourceProperty(
+      "socketTimeout",
+      String.valueOf(database.getSocketTimeout().toSeconds())
+    );
+    config.addDataSourceProperty(
+      "options",
+      "-c statement_timeout=" + database.getStatementTimeout().toMillis()
+    );
+    log.info(
+      "🔌 建立連線池 {} (最大 {} 條連線)",
+      config.getPoolName(),
+      config.getMaximumPoolSize()
+    );
+    return new HikariDataSource(config);
+  }
+}
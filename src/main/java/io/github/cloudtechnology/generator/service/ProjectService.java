@@ -1,18 +1,48 @@
 package io.github.cloudtechnology.generator.service;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import javax.sql.DataSource;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
 import io.github.cloudtechnology.generator.command.CreateProjectCommand;
+import io.github.cloudtechnology.generator.service.asset.StaticAssetBundle;
+import io.github.cloudtechnology.generator.service.cache.GenerationCache;
+import io.github.cloudtechnology.generator.service.cache.OpenApiModelCache;
 import io.github.cloudtechnology.generator.service.impl.GradleProjectGenerator;
+import io.github.cloudtechnology.generator.service.report.GenerationReport;
+import io.github.cloudtechnology.generator.service.scheduler.GenerationPhase;
+import io.github.cloudtechnology.generator.service.scheduler.PhaseScheduler;
+import io.github.cloudtechnology.generator.service.staging.GenerationManifest;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
 import io.github.cloudtechnology.generator.vo.ApiVo;
+import io.github.cloudtechnology.generator.vo.CacheEntryVo;
+import io.github.cloudtechnology.generator.vo.DatabaseVo;
+import io.github.cloudtechnology.generator.vo.GenerationReportVo;
 import io.github.cloudtechnology.generator.vo.ProjectVo;
 import io.github.cloudtechnology.generator.vo.RepositoryVo;
+import io.github.cloudtechnology.generator.vo.SchemaSnapshotVo;
 import io.github.cloudtechnology.generator.vo.SchemaVo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,10 +53,294 @@ import lombok.extern.slf4j.Slf4j;
 public class ProjectService {
 
   private final ApplicationContext applicationContext;
+  private final PhaseScheduler phaseScheduler;
+  private final GenerationDataSourceFactory dataSourceFactory;
+  private final GenerationCache generationCache;
+
+  /**
+   * 模板內容打包在執行檔中，執行期間不會改變，只需計算一次
+   */
+  private volatile String templatesHash;
 
-  public void create(CreateProjectCommand createProjectCommand)
+  /**
+   * @return 各階段的耗用資源
+   */
+  public GenerationReportVo create(CreateProjectCommand createProjectCommand)
     throws Exception {
     log.info("path={}", createProjectCommand.getProjectTempPath());
+    // 目標目錄已有上次產生的 manifest 時，只重新執行輸入有變動的階段
+    GenerationManifest manifest = GenerationManifest.load(
+      createProjectCommand.getProjectTempPath()
+    );
+    // 各階段只寫入記憶體中的檔案樹，全部成功後才一次寫入磁碟
+    StagingTree staging = new StagingTree();
+    GenerationReport report = new GenerationReport(
+      createProjectCommand.getName(),
+      staging,
+      manifest
+    );
+    // 只有輸出到全新目錄時查詢快取，既有目錄由 manifest 決定要重新產生的階段
+    AtomicReference<String> cacheKey = generationCache.isEnabled() &&
+      !Files.exists(createProjectCommand.getProjectTempPath())
+      ? new AtomicReference<>()
+      : null;
+    try {
+      if (
+        !this.generate(createProjectCommand, staging, manifest, report, cacheKey)
+      ) {
+        report.measureWrite(() ->
+          staging.commit(createProjectCommand.getProjectTempPath(), manifest)
+        );
+        if (cacheKey != null && cacheKey.get() != null) {
+          generationCache.store(
+            cacheKey.get(),
+            createProjectCommand.getProjectTempPath()
+          );
+        }
+      }
+    } finally {
+      staging.discard();
+    }
+    return report.build();
+  }
+
+  /**
+   * 產生專案並直接串流成壓縮檔，不在磁碟上建立專案目錄
+   *
+   * @param outputStream 輸出串流，由呼叫端負責關閉
+   * @return 各階段的耗用資源
+   */
+  public GenerationReportVo createArchive(
+    CreateProjectCommand createProjectCommand,
+    ArchiveFormatEnum archiveFormat,
+    OutputStream outputStream
+  ) throws Exception {
+    log.info(
+      "path={}, archiveFormat={}",
+      createProjectCommand.getProjectTempPath(),
+      archiveFormat
+    );
+    // 壓縮檔必須包含所有檔案，不略過任何階段
+    GenerationManifest manifest = GenerationManifest.empty();
+    StagingTree staging = new StagingTree();
+    GenerationReport report = new GenerationReport(
+      createProjectCommand.getName(),
+      staging,
+      manifest
+    );
+    try {
+      this.generate(createProjectCommand, staging, manifest, report, null);
+      report.measureWrite(() ->
+        staging.writeArchive(
+          archiveFormat,
+          createProjectCommand.getProjectTempPath().getFileName().toString(),
+          outputStream,
+          manifest
+        )
+      );
+    } finally {
+      staging.discard();
+    }
+    return report.build();
+  }
+
+  /**
+   * 產生專案並寫成壓縮檔，失敗時刪除寫到一半的檔案
+   *
+   * @return 各階段的耗用資源
+   */
+  public GenerationReportVo createArchive(
+    CreateProjectCommand createProjectCommand,
+    ArchiveFormatEnum archiveFormat,
+    Path archivePath
+  ) throws Exception {
+    if (archivePath.getParent() != null) {
+      Files.createDirectories(archivePath.getParent());
+    }
+    GenerationReportVo report;
+    try (
+      OutputStream outputStream = new BufferedOutputStream(
+        Files.newOutputStream(archivePath)
+      )
+    ) {
+      report =
+        this.createArchive(createProjectCommand, archiveFormat, outputStream);
+    } catch (Exception e) {
+      Files.deleteIfExists(archivePath);
+      throw e;
+    }
+    log.info("📦 已輸出壓縮檔: {}", archivePath.toAbsolutePath());
+    return report;
+  }
+
+  /**
+   * @param cacheKey 不為 null 時先查詢快取，並設為本次的快取鍵，
+   *                 未命中時由呼叫端在寫入專案後存入快取；無法計算快取鍵時維持 null
+   * @return 已從快取還原專案，不需要再寫入
+   */
+  private boolean generate(
+    CreateProjectCommand createProjectCommand,
+    StagingTree staging,
+    GenerationManifest manifest,
+    GenerationReport report,
+    AtomicReference<String> cacheKey
+  ) throws Exception {
+    // 每次產生流程只建立一個連線池，所有資料庫相關階段共用，結束時一定關閉
+    HikariDataSource dataSource = createProjectCommand.hasDatabase()
+      ? dataSourceFactory.create(this.databaseVo(createProjectCommand))
+      : null;
+    try {
+      AtomicReference<SchemaSnapshotVo> schemaSnapshot = new AtomicReference<>();
+      List<GenerationPhase> phases = this.planPhases(
+          createProjectCommand,
+          staging,
+          dataSource,
+          manifest,
+          schemaSnapshot
+        )
+        .stream()
+        .map(report::instrument)
+        .toList();
+      if (cacheKey != null) {
+        // 快取鍵包含 schema 指紋，先讀取資料庫目錄，其餘階段沿用同一份快照
+        phases = this.runFirst(PhaseEnum.SCHEMA, phases);
+        if (
+          this.restoreFromCache(
+              createProjectCommand,
+              schemaSnapshot.get(),
+              report,
+              cacheKey
+            )
+        ) {
+          report.recordSchema(schemaSnapshot.get());
+          return true;
+        }
+      }
+      phaseScheduler.run(phases);
+      report.recordSchema(schemaSnapshot.get());
+      return false;
+    } finally {
+      if (dataSource != null) {
+        dataSource.close();
+        log.info("🔌 已關閉連線池 {}", dataSource.getPoolName());
+      }
+    }
+  }
+
+  /**
+   * 先執行指定的階段，回傳其餘不再相依於它的階段
+   */
+  private List<GenerationPhase> runFirst(
+    PhaseEnum first,
+    List<GenerationPhase> phases
+  ) throws Exception {
+    List<GenerationPhase> firstPhases = phases
+      .stream()
+      .filter(phase -> phase.phase() == first)
+      .toList();
+    if (firstPhases.isEmpty()) {
+      return phases;
+    }
+    phaseScheduler.run(firstPhases);
+    return phases
+      .stream()
+      .filter(phase -> phase.phase() != first)
+      .map(phase -> {
+        Set<PhaseEnum> dependsOn = EnumSet.noneOf(PhaseEnum.class);
+        dependsOn.addAll(phase.dependsOn());
+        dependsOn.remove(first);
+        return new GenerationPhase(phase.phase(), dependsOn, phase.task());
+      })
+      .toList();
+  }
+
+  /**
+   * 快取鍵由產生器版本、模板內容、專案設定、OpenAPI 規格與引用的檔案、schema 指紋組成，
+   * 不包含輸出路徑與資料庫連線資訊；規格引用遠端檔案時無法確認內容，不使用快取
+   *
+   * @return 是否命中並已還原
+   */
+  private boolean restoreFromCache(
+    CreateProjectCommand createProjectCommand,
+    SchemaSnapshotVo schemaSnapshot,
+    GenerationReport report,
+    AtomicReference<String> cacheKey
+  ) throws Exception {
+    AtomicReference<CacheEntryVo> restored = new AtomicReference<>();
+    report.measureCache(() -> {
+      Optional<String> specHash = ObjectUtils.isEmpty(
+          createProjectCommand.getOpenAPIFIle()
+        )
+        ? Optional.of("")
+        : OpenApiModelCache.specHash(createProjectCommand.getOpenAPIFIle());
+      if (specHash.isEmpty()) {
+        log.info("🌐 規格引用遠端檔案，不使用產生結果快取");
+        return;
+      }
+      cacheKey.set(
+        GenerationManifest.hash(
+          GenerationManifest.version(),
+          this.templatesHash(),
+          createProjectCommand.getBuildTool(),
+          createProjectCommand.getGroupId(),
+          createProjectCommand.getArtifactId(),
+          createProjectCommand.getName(),
+          createProjectCommand.getDescription(),
+          createProjectCommand.getPackageName(),
+          createProjectCommand.getJvmVersion(),
+          createProjectCommand.getRuntime(),
+          specHash.get(),
+          schemaSnapshot == null ? null : schemaSnapshot.fingerprint()
+        )
+      );
+      restored.set(
+        generationCache
+          .restore(cacheKey.get(), createProjectCommand.getProjectTempPath())
+          .orElse(null)
+      );
+    });
+    if (restored.get() == null) {
+      return false;
+    }
+    report.recordOutput(
+      GenerationReport.CACHE,
+      restored.get().files(),
+      restored.get().bytes()
+    );
+    return true;
+  }
+
+  /**
+   * 以與產生流程相同的連線設定與 SchemaIntrospector 讀取資料庫 schema 指紋，
+   * 連線池用完即關閉，供 --watch 定期比對
+   */
+  public String schemaFingerprint(CreateProjectCommand createProjectCommand)
+    throws Exception {
+    try (
+      HikariDataSource dataSource = dataSourceFactory.create(
+        this.databaseVo(createProjectCommand)
+      )
+    ) {
+      return this.introspect(dataSource).fingerprint();
+    }
+  }
+
+  private DatabaseVo databaseVo(CreateProjectCommand createProjectCommand) {
+    return new DatabaseVo(
+      createProjectCommand.getDbUrl(),
+      createProjectCommand.getDbUsername(),
+      createProjectCommand.getDbPassword()
+    );
+  }
+
+  private List<GenerationPhase> planPhases(
+    CreateProjectCommand createProjectCommand,
+    StagingTree staging,
+    DataSource dataSource,
+    GenerationManifest manifest,
+    AtomicReference<SchemaSnapshotVo> schemaSnapshot
+  ) {
+    List<GenerationPhase> phases = new ArrayList<>();
     ProjectVo projectVo = new ProjectVo(
       createProjectCommand.getProjectTempPath(),
       createProjectCommand.getBuildTool(),
@@ -36,86 +350,290 @@ public class ProjectService {
       createProjectCommand.getDescription(),
       createProjectCommand.getPackageName(),
       createProjectCommand.getJvmVersion(),
-      createProjectCommand.getRuntime()
+      createProjectCommand.getRuntime(),
+      staging.forPhase(PhaseEnum.SCAFFOLD)
+    );
+    phases.add(
+      GenerationPhase.of(
+        PhaseEnum.SCAFFOLD,
+        this.incremental(
+            manifest,
+            PhaseEnum.SCAFFOLD,
+            () ->
+              GenerationManifest.hash(
+                projectVo.buildTool(),
+                projectVo.groupId(),
+                projectVo.artifactId(),
+                projectVo.name(),
+                projectVo.description(),
+                projectVo.packageName(),
+                projectVo.jvmVersion(),
+                projectVo.runtime(),
+                this.templatesHash()
+              ),
+            () -> this.scaffold(projectVo)
+          )
+      )
     );
-
-    ProjectGenerator projectGenerator =
-      switch (createProjectCommand.getBuildTool()) {
-        case GRADLE:
-          yield (ProjectGenerator) applicationContext.getBean(
-            GradleProjectGenerator.class
-          );
-        default:
-          throw new IllegalArgumentException("Invalid build tool");
-      };
-    projectGenerator.generate(projectVo);
     //
     if (!ObjectUtils.isEmpty(createProjectCommand.getOpenAPIFIle())) {
-      ApiGenerator apiGenerator = applicationContext.getBean(
-        "openAPIGenerator",
-        ApiGenerator.class
-      );
       ApiVo apiVo = new ApiVo(
         createProjectCommand.getProjectTempPath(),
         createProjectCommand.getOpenAPIFIle(),
-        createProjectCommand.getPackageName()
+        createProjectCommand.getPackageName(),
+        staging.forPhase(PhaseEnum.OPENAPI)
+      );
+      phases.add(
+        GenerationPhase.of(
+          PhaseEnum.OPENAPI,
+          this.incremental(
+              manifest,
+              PhaseEnum.OPENAPI,
+              // 以相對路徑 $ref 引用的檔案改變時也要重新產生，引用遠端檔案時每次都重新產生
+              () ->
+                OpenApiModelCache
+                  .specHash(apiVo.specSource())
+                  .map(specHash ->
+                    GenerationManifest.hash(specHash, apiVo.packageName())
+                  )
+                  .orElse(null),
+              () -> this.generateApi(apiVo)
+            )
+        )
       );
-      apiGenerator.generate(apiVo);
     }
 
-    if (
-      StringUtils.hasText(createProjectCommand.getDbUrl()) &&
-      StringUtils.hasText(createProjectCommand.getDbUsername()) &&
-      StringUtils.hasText(createProjectCommand.getDbPassword())
-    ) {
-      // 1. 先生成 JOOQ 標準類別（POJOs, Tables, Records）
-      RepositoryGenerator jooqGenerator = applicationContext.getBean(
-        "jooqGenerator",
-        RepositoryGenerator.class
+    Path schemaFile = createProjectCommand.getSchemaFile();
+    if (dataSource != null || schemaFile != null) {
+      // 資料庫目錄只讀取一次，JOOQ 與 Liquibase 共用同一份快照；沒有資料庫時解析 DDL 檔案
+      phases.add(
+        GenerationPhase.of(
+          PhaseEnum.SCHEMA,
+          () ->
+            schemaSnapshot.set(
+              dataSource != null
+                ? this.introspect(dataSource)
+                : this.introspect(schemaFile)
+            )
+        )
       );
-      RepositoryVo repositoryVo = new RepositoryVo(
-        createProjectCommand.getProjectTempPath(),
-        createProjectCommand.getPackageName(),
-        createProjectCommand.getDbUrl(),
-        createProjectCommand.getDbUsername(),
-        createProjectCommand.getDbPassword()
+      Function<PhaseEnum, RepositoryVo> repositoryVo = phase ->
+        new RepositoryVo(
+          createProjectCommand.getProjectTempPath(),
+          createProjectCommand.getPackageName(),
+          schemaSnapshot.get(),
+          dataSource,
+          staging.forPhase(phase)
+        );
+      // 只有 Repository 介面需要等待 JOOQ 產生的表元數據，其餘階段可同時執行
+      phases.add(
+        GenerationPhase.of(
+          PhaseEnum.JOOQ,
+          () -> {
+            String inputHash = GenerationManifest.hash(
+              schemaSnapshot.get().fingerprint(),
+              createProjectCommand.getPackageName(),
+              this.templatesHash()
+            );
+            manifest.recordInput(PhaseEnum.JOOQ, inputHash);
+            manifest.recordInput(PhaseEnum.REPOSITORY, inputHash);
+            // Repository 介面依賴 JOOQ 的表元數據，兩個階段只能一起略過
+            if (
+              manifest.isUpToDate(PhaseEnum.JOOQ, inputHash) &&
+              manifest.isUpToDate(PhaseEnum.REPOSITORY, inputHash)
+            ) {
+              this.skip(manifest, PhaseEnum.JOOQ);
+              this.skip(manifest, PhaseEnum.REPOSITORY);
+              return;
+            }
+            this.generateJooq(repositoryVo.apply(PhaseEnum.JOOQ));
+          },
+          PhaseEnum.SCHEMA
+        )
       );
-      jooqGenerator.generate(repositoryVo);
-      
-      // 2. JOOQ 完成後，獨立生成 Repository 介面
-      log.info("🔄 JOOQ 生成完成，開始生成 Spring Data Repository 介面...");
-      RepositoryGenerator springRepositoryGenerator = applicationContext.getBean(
-        "springRepositoryGenerator", 
-        RepositoryGenerator.class
+      phases.add(
+        GenerationPhase.of(
+          PhaseEnum.REPOSITORY,
+          () -> {
+            if (!manifest.isSkipped(PhaseEnum.REPOSITORY)) {
+              this.generateRepositories(
+                  repositoryVo.apply(PhaseEnum.REPOSITORY)
+                );
+            }
+          },
+          PhaseEnum.JOOQ
+        )
       );
-      springRepositoryGenerator.generate(repositoryVo);
-      log.info("✅ Spring Data Repository 介面生成完成");
-      
-      // 3. 清理臨時的 repository-metadata.json 檔案
-      try {
-        Path metadataFilePath = repositoryVo.projectTempPath()
-                                          .resolve("src/main/java")
-                                          .resolve("repository-metadata.json");
-        if (Files.exists(metadataFilePath)) {
-          Files.delete(metadataFilePath);
-          log.info("🧹 已清理臨時檔案: repository-metadata.json");
+      phases.add(
+        GenerationPhase.of(
+          PhaseEnum.LIQUIBASE,
+          this.incremental(
+              manifest,
+              PhaseEnum.LIQUIBASE,
+              () -> GenerationManifest.hash(schemaSnapshot.get().fingerprint()),
+              () ->
+                this.generateChangeLog(
+                    new SchemaVo(
+                      createProjectCommand.getProjectTempPath(),
+                      schemaSnapshot.get(),
+                      dataSource,
+                      staging.forPhase(PhaseEnum.LIQUIBASE)
+                    )
+                  )
+            ),
+          PhaseEnum.SCHEMA
+        )
+      );
+    }
+    return phases;
+  }
+
+  /**
+   * 階段輸入與上次產生時相同且輸出檔案都還在時略過該階段
+   *
+   * @param inputHash 在階段開始時才計算，可以使用前置階段的結果；
+   *                  回傳 null 表示無法確認輸入是否改變，一定重新產生
+   */
+  private GenerationPhase.PhaseTask incremental(
+    GenerationManifest manifest,
+    PhaseEnum phase,
+    Callable<String> inputHash,
+    GenerationPhase.PhaseTask task
+  ) {
+    return () -> {
+      String hash = inputHash.call();
+      if (hash == null) {
+        manifest.recordInput(phase, GenerationManifest.UNKNOWN_INPUT);
+        task.run();
+        return;
+      }
+      manifest.recordInput(phase, hash);
+      if (manifest.isUpToDate(phase, hash)) {
+        this.skip(manifest, phase);
+        return;
+      }
+      task.run();
+    };
+  }
+
+  private void skip(GenerationManifest manifest, PhaseEnum phase) {
+    manifest.markSkipped(phase);
+    log.info("⏭️ {} 的輸入與上次產生時相同，略過", phase);
+  }
+
+  /**
+   * 所有模板與靜態檔案內容的雜湊，模板改版時相關階段需要重新產生
+   */
+  private String templatesHash() throws IOException {
+    String hash = templatesHash;
+    if (hash == null) {
+      List<String> hashes = new ArrayList<>();
+      for (String pattern : List.of(
+        "classpath*:templates/**/*",
+        "classpath*:" + StaticAssetBundle.BUNDLE_RESOURCE
+      )) {
+        for (Resource resource : applicationContext.getResources(pattern)) {
+          if (resource.isReadable()) {
+            try (InputStream inputStream = resource.getInputStream()) {
+              hashes.add(
+                resource.getFilename() +
+                ":" +
+                GenerationManifest.sha256(inputStream.readAllBytes())
+              );
+            }
+          }
         }
-      } catch (Exception e) {
-        log.warn("⚠️ 清理臨時檔案時發生錯誤: {}", e.getMessage());
       }
-      
-      // 4. 生成 Liquibase schema versioning
-      SchemaVersioning schemaVersioning = applicationContext.getBean(
-        "liquibaseGenerator",
-        SchemaVersioning.class
-      );
-      SchemaVo schemaVo = new SchemaVo(
-        createProjectCommand.getProjectTempPath(),
-        createProjectCommand.getDbUrl(),
-        createProjectCommand.getDbUsername(),
-        createProjectCommand.getDbPassword()
-      );
-      schemaVersioning.generate(schemaVo);
+      Collections.sort(hashes);
+      hash = GenerationManifest.hash(hashes.toArray());
+      templatesHash = hash;
+    }
+    return hash;
+  }
+
+  private void scaffold(ProjectVo projectVo) throws Exception {
+    ProjectGenerator projectGenerator =
+      switch (projectVo.buildTool()) {
+        case GRADLE:
+          yield (ProjectGenerator) applicationContext.getBean(
+            GradleProjectGenerator.class
+          );
+        default:
+          throw new IllegalArgumentException("Invalid build tool");
+      };
+    projectGenerator.generate(projectVo);
+  }
+
+  /**
+   * API、資料庫與 schema 階段的產生器都是 @Lazy bean，執行到該階段時才在這裡建立，
+   * 沒有提供 OpenAPI 規格或資料庫時不會初始化 openapi-generator、JOOQ 與 Liquibase
+   */
+  private void generateApi(ApiVo apiVo) throws Exception {
+    ApiGenerator apiGenerator = applicationContext.getBean(
+      "openAPIGenerator",
+      ApiGenerator.class
+    );
+    apiGenerator.generate(apiVo);
+  }
+
+  private SchemaSnapshotVo introspect(DataSource dataSource) throws Exception {
+    SchemaIntrospector schemaIntrospector = applicationContext.getBean(
+      "schemaIntrospector",
+      SchemaIntrospector.class
+    );
+    return schemaIntrospector.introspect(dataSource);
+  }
+
+  private SchemaSnapshotVo introspect(Path ddlFile) throws Exception {
+    SchemaIntrospector schemaIntrospector = applicationContext.getBean(
+      "schemaIntrospector",
+      SchemaIntrospector.class
+    );
+    return schemaIntrospector.introspect(ddlFile);
+  }
+
+  /**
+   * 先生成 JOOQ 標準類別（POJOs, Tables, Records）
+   */
+  private void generateJooq(RepositoryVo repositoryVo) throws Exception {
+    RepositoryGenerator jooqGenerator = applicationContext.getBean(
+      "jooqGenerator",
+      RepositoryGenerator.class
+    );
+    jooqGenerator.generate(repositoryVo);
+  }
+
+  /**
+   * JOOQ 完成後，獨立生成 Repository 介面
+   */
+  private void generateRepositories(RepositoryVo repositoryVo)
+    throws Exception {
+    log.info("🔄 JOOQ 生成完成，開始生成 Spring Data Repository 介面...");
+    RepositoryGenerator springRepositoryGenerator = applicationContext.getBean(
+      "springRepositoryGenerator",
+      RepositoryGenerator.class
+    );
+    springRepositoryGenerator.generate(repositoryVo);
+    log.info("✅ Spring Data Repository 介面生成完成");
+
+    // 清理臨時的 repository-metadata.json 檔案，不會寫入磁碟
+    if (
+      repositoryVo
+        .sink()
+        .delete(Path.of("src", "main", "java", "repository-metadata.json"))
+    ) {
+      log.info("🧹 已清理臨時檔案: repository-metadata.json");
     }
   }
+
+  /**
+   * 生成 Liquibase schema versioning
+   */
+  private void generateChangeLog(SchemaVo schemaVo) throws Exception {
+    SchemaVersioning schemaVersioning = applicationContext.getBean(
+      "liquibaseGenerator",
+      SchemaVersioning.class
+    );
+    schemaVersioning.generate(schemaVo);
+  }
 }
@@ -0,0 +1,14 @@
+package io.github.cloudtechnology.generator.service;
+
+import io.github.cloudtechnology.generator.vo.SchemaSnapshotVo;
+import java.nio.file.Path;
+import javax.sql.DataSource;
+
+public interface SchemaIntrospector {
+  public SchemaSnapshotVo introspect(DataSource dataSource) throws Exception;
+
+  /**
+   * 不連線資料庫，解析 PostgreSQL DDL 檔案建立相同格式的快照
+   */
+  public SchemaSnapshotVo introspect(Path ddlFile) throws Exception;
+}
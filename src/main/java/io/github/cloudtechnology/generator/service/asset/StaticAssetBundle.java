@@ -0,0 +1,318 @@
+package io.github.cloudtechnology.generator.service.asset;
+
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.github.cloudtechnology.generator.service.staging.GeneratedFileSink;
+import io.github.cloudtechnology.generator.service.staging.GenerationManifest;
+import io.github.cloudtechnology.generator.service.staging.StagedSource;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * 建置時打包的 static-assets.bin (見 gradle/static-assets.gradle)
+ *
+ * 第一次使用時將 bundle 放到本機檔案庫並以 memory map 讀取，每個 JVM 只讀取一次；
+ * 寫入全新目錄時以 FileChannel.transferTo 從 bundle 直接複製，
+ * 啟用 hard link 時不可變的二進位檔 (gradle-wrapper.jar) 改為連結到檔案庫中依內容雜湊命名的唯讀檔案；
+ * compose.yaml 等使用者會修改的文字檔一律複製，就地修改不會影響其他專案。
+ * 無法使用檔案庫時退回一般的記憶體寫入
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StaticAssetBundle {
+
+  public static final String BUNDLE_RESOURCE = "static-assets.bin";
+
+  private static final int MAGIC = 0x47434142;
+  private static final int VERSION = 1;
+
+  /**
+   * 可以 hard link 的靜態檔案，只有產生後不會被修改的二進位檔
+   */
+  private static final Set<String> LINKABLE_EXTENSIONS = Set.of(".jar");
+
+  private static final Set<PosixFilePermission> READ_WRITE = PosixFilePermissions.fromString(
+    "rw-r--r--"
+  );
+  private static final Set<PosixFilePermission> READ_ONLY = PosixFilePermissions.fromString(
+    "r--r--r--"
+  );
+
+  private final ApplicationProperties applicationProperties;
+
+  private volatile Bundle bundle;
+
+  /**
+   * 已從 bundle 取出的內容，所有專案共用同一個陣列，輸出端不會修改內容
+   */
+  private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+
+
+  /**
+   * 將靜態檔案寫入輸出
+   *
+   * @param assetPath  bundle 中的路徑，例如 static/gradlew
+   * @param targetPath 在專案中的相對路徑
+   */
+  public void stage(
+    GeneratedFileSink sink,
+    String assetPath,
+    Path targetPath,
+    boolean executable
+  ) throws IOException {
+    Bundle current = this.bundle();
+    Entry entry = current.entries().get(assetPath);
+    if (entry == null) {
+      throw new IllegalArgumentException("找不到靜態檔案: " + assetPath);
+    }
+    byte[] content = contents.computeIfAbsent(
+      assetPath,
+      path -> {
+        byte[] bytes = new byte[(int) entry.length()];
+        current.content().get((int) entry.offset(), bytes);
+        return bytes;
+      }
+    );
+    boolean linkable =
+      applicationProperties.getAssets().isHardLink() &&
+      LINKABLE_EXTENSIONS.stream().anyMatch(assetPath::endsWith);
+    StagedSource source = current.channel() == null
+      ? null
+      : file -> this.writeTo(current, entry, content, file, linkable);
+    sink.write(targetPath, content, executable, source);
+  }
+
+  private void writeTo(
+    Bundle current,
+    Entry entry,
+    byte[] content,
+    Path file,
+    boolean linkable
+  ) throws IOException {
+    if (linkable) {
+      try {
+        Files.createLink(file, this.linkSource(content));
+        return;
+      } catch (IOException | UnsupportedOperationException e) {
+        // 跨檔案系統無法建立 hard link，改為複製
+        log.debug("無法建立 hard link {}: {}", file, e.getMessage());
+      }
+    }
+    try (
+      FileChannel target = FileChannel.open(
+        file,
+        StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE
+      )
+    ) {
+      long position = 0;
+      while (position < entry.length()) {
+        position +=
+          current
+            .channel()
+            .transferTo(
+              current.contentOffset() + entry.offset() + position,
+              entry.length() - position,
+              target
+            );
+      }
+    }
+  }
+
+  /**
+   * 檔案庫中依內容雜湊命名的唯讀檔案，不存在或內容與雜湊不符時重新建立
+   *
+   * 唯讀權限擋不住 root 或先 chmod 再修改的情況，每次連結前都重新比對內容，
+   * 被改過的檔案以新的檔案取代，之後的專案不會連結到錯誤的內容
+   */
+  private Path linkSource(byte[] content) throws IOException {
+    String hash = GenerationManifest.sha256(content);
+    Path source = applicationProperties
+      .getAssets()
+      .getDirectory()
+      .resolve("objects")
+      .resolve(hash);
+    if (Files.isRegularFile(source)) {
+      if (!hash.equals(GenerationManifest.sha256(Files.readAllBytes(source)))) {
+        log.warn("⚠️ 靜態檔案庫中的 {} 已被修改，重新建立", source);
+      } else if (!isWritable(source)) {
+        return source;
+      }
+    }
+    publish(source, content, READ_ONLY);
+    return source;
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    Bundle current = bundle;
+    if (current != null && current.channel() != null) {
+      current.channel().close();
+    }
+  }
+
+  private Bundle bundle() throws IOException {
+    Bundle current = bundle;
+    if (current == null) {
+      synchronized (this) {
+        current = bundle;
+        if (current == null) {
+          current = this.load();
+          bundle = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private Bundle load() throws IOException {
+    long start = System.nanoTime();
+    ClassPathResource resource = new ClassPathResource(BUNDLE_RESOURCE);
+    Path bundleFile;
+    if (resource.isFile()) {
+      bundleFile = resource.getFile().toPath();
+    } else {
+      // 執行檔中的資源無法直接 memory map，取出一份放在檔案庫，之後的行程直接使用
+      byte[] bytes;
+      try (InputStream inputStream = resource.getInputStream()) {
+        bytes = inputStream.readAllBytes();
+      }
+      bundleFile =
+        applicationProperties
+          .getAssets()
+          .getDirectory()
+          .resolve("bundle-" + GenerationManifest.sha256(bytes) + ".bin");
+      try {
+        if (!Files.isRegularFile(bundleFile)) {
+          publish(bundleFile, bytes, READ_WRITE);
+        }
+      } catch (IOException e) {
+        log.warn(
+          "⚠️ 無法建立靜態檔案庫 {}，改為從記憶體寫入: {}",
+          bundleFile,
+          e.getMessage()
+        );
+        return parse(ByteBuffer.wrap(bytes), null);
+      }
+    }
+    FileChannel channel = FileChannel.open(bundleFile, StandardOpenOption.READ);
+    Bundle loaded = parse(
+      channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+      channel
+    );
+    log.debug(
+      "📦 已載入 {} 個靜態檔案 ({})，耗時 {} ms",
+      loaded.entries().size(),
+      bundleFile,
+      (System.nanoTime() - start) / 1_000_000
+    );
+    return loaded;
+  }
+
+  private static Bundle parse(ByteBuffer buffer, FileChannel channel)
+    throws IOException {
+    byte[] header = new byte[Math.min(buffer.capacity(), 64 * 1024)];
+    buffer.get(0, header);
+    ByteArrayInputStream headerStream = new ByteArrayInputStream(header);
+    DataInputStream input = new DataInputStream(headerStream);
+    if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+      throw new IOException("Invalid static asset bundle");
+    }
+    int count = input.readInt();
+    Map<String, Entry> entries = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      entries.put(input.readUTF(), new Entry(input.readLong(), input.readLong()));
+    }
+    int contentOffset = header.length - headerStream.available();
+    return new Bundle(
+      Map.copyOf(entries),
+      buffer.slice(contentOffset, buffer.capacity() - contentOffset),
+      channel,
+      contentOffset
+    );
+  }
+
+  /**
+   * 舊版建立的檔案可寫入，重新建立為唯讀；不支援 posix 權限的檔案系統視為唯讀
+   */
+  private static boolean isWritable(Path file) throws IOException {
+    return (
+      file.getFileSystem().supportedFileAttributeViews().contains("posix") &&
+      !Files.getPosixFilePermissions(file).equals(READ_ONLY)
+    );
+  }
+
+  /**
+   * 先寫到同目錄的暫存檔再 rename，同時執行的其他行程只會看到完整的檔案
+   *
+   * @param permissions 暫存檔只有擁有者可讀，hard link 到專案的檔案必須讓其他使用者也能讀取
+   */
+  private static void publish(
+    Path file,
+    byte[] content,
+    Set<PosixFilePermission> permissions
+  ) throws IOException {
+    Files.createDirectories(file.getParent());
+    Path temporaryFile = Files.createTempFile(
+      file.getParent(),
+      "." + file.getFileName(),
+      ".tmp"
+    );
+    try {
+      Files.write(temporaryFile, content);
+      if (
+        temporaryFile
+          .getFileSystem()
+          .supportedFileAttributeViews()
+          .contains("posix")
+      ) {
+        Files.setPosixFilePermissions(temporaryFile, permissions);
+      }
+      try {
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      Files.deleteIfExists(temporaryFile);
+      throw e;
+    }
+  }
+
+  /**
+   * @param offset 以內容區開頭為基準的位移
+   */
+  private record Entry(long offset, long length) {}
+
+  /**
+   * @param content       內容區，memory map 或記憶體中的 bundle
+   * @param channel       bundle 檔案，無法使用檔案庫時為 null
+   * @param contentOffset 內容區在 bundle 檔案中的位移
+   */
+  private record Bundle(
+    Map<String, Entry> entries,
+    ByteBuffer content,
+    FileChannel channel,
+    long contentOffset
+  ) {}
+}
@@ -0,0 +1,290 @@
+package io.github.cloudtechnology.generator.service.cache;
+
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
+import io.github.cloudtechnology.generator.vo.CacheEntryVo;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 以輸入雜湊定址的本機快取，保存完整的產生結果，相同輸入再次產生時直接還原，
+ * 不再執行 jOOQ、OpenAPI 與 Liquibase
+ *
+ * 每個項目是快取目錄下的 {@code <key>/tree} 與記錄大小的 {@code <key>/size}，
+ * size 檔案的修改時間即最後使用時間；項目先寫在暫存目錄再 rename，
+ * 同時執行的其他行程只會看到完整的項目
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenerationCache {
+
+  private static final String TREE = "tree";
+  private static final String SIZE = "size";
+  private static final String TEMPORARY_PREFIX = ".tmp-";
+
+  /**
+   * 超過此時間的暫存目錄視為中斷的行程留下的，淘汰時一併刪除
+   */
+  private static final Duration STALE_TEMPORARY = Duration.ofHours(1);
+
+  private final ApplicationProperties applicationProperties;
+
+  public boolean isEnabled() {
+    return applicationProperties.getCache().isEnabled();
+  }
+
+  /**
+   * 命中時將快取的專案還原到全新的目錄，還原到一半失敗時清除並視為未命中
+   *
+   * @param key             輸入雜湊
+   * @param targetDirectory 尚不存在的專案輸出目錄
+   * @return 還原的項目，未命中時為 empty
+   */
+  public Optional<CacheEntryVo> restore(String key, Path targetDirectory) {
+    Path entry = this.entry(key);
+    Path tree = entry.resolve(TREE);
+    if (!Files.isDirectory(tree)) {
+      log.info("🔍 快取未命中 {}", key);
+      return Optional.empty();
+    }
+    long start = System.nanoTime();
+    Path target = targetDirectory.toAbsolutePath().normalize();
+    Path workDirectory = null;
+    try {
+      Files.createDirectories(target.getParent());
+      workDirectory =
+        Files.createTempDirectory(
+          target.getParent(),
+          "." + target.getFileName() + ".cache-"
+        );
+      CacheEntryVo restored = copyTree(
+        key,
+        tree,
+        workDirectory,
+        applicationProperties.getCache().isHardLink()
+      );
+      try {
+        Files.move(workDirectory, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(workDirectory, target);
+      }
+      Files.setLastModifiedTime(
+        entry.resolve(SIZE),
+        FileTime.from(Instant.now())
+      );
+      log.info(
+        "⚡ 快取命中 {}，已還原 {} 個檔案 ({} bytes) 到 {}，耗時 {} ms",
+        key,
+        restored.files(),
+        restored.bytes(),
+        target,
+        (System.nanoTime() - start) / 1_000_000
+      );
+      return Optional.of(restored);
+    } catch (IOException e) {
+      // 項目可能正好被其他行程淘汰，改為重新產生
+      if (workDirectory != null) {
+        StagingTree.deleteRecursively(workDirectory);
+      }
+      log.warn("⚠️ 無法從快取還原 {}，改為重新產生: {}", key, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * 將剛產生的專案複製到快取，之後淘汰超過大小上限的項目；
+   * 快取寫入失敗不影響產生結果
+   *
+   * @param key              輸入雜湊
+   * @param projectDirectory 剛寫入的專案目錄，只包含產生的檔案
+   */
+  public void store(String key, Path projectDirectory) {
+    long start = System.nanoTime();
+    Path directory = applicationProperties.getCache().getDirectory();
+    Path workDirectory = null;
+    try {
+      Files.createDirectories(directory);
+      workDirectory = Files.createTempDirectory(directory, TEMPORARY_PREFIX);
+      // 一律複製，之後修改產生的專案不會影響快取
+      CacheEntryVo stored = copyTree(
+        key,
+        projectDirectory,
+        workDirectory.resolve(TREE),
+        false
+      );
+      Files.writeString(
+        workDirectory.resolve(SIZE),
+        String.valueOf(stored.bytes())
+      );
+      try {
+        Files.move(workDirectory, this.entry(key), StandardCopyOption.ATOMIC_MOVE);
+      } catch (FileSystemException e) {
+        if (!Files.isDirectory(this.entry(key))) {
+          throw e;
+        }
+        // 其他行程已存入相同輸入的結果
+        StagingTree.deleteRecursively(workDirectory);
+        return;
+      }
+      log.info(
+        "🗄️ 已存入快取 {}: {} 個檔案 ({} bytes)，耗時 {} ms",
+        key,
+        stored.files(),
+        stored.bytes(),
+        (System.nanoTime() - start) / 1_000_000
+      );
+    } catch (IOException e) {
+      if (workDirectory != null) {
+        StagingTree.deleteRecursively(workDirectory);
+      }
+      log.warn("⚠️ 無法存入快取 {}: {}", key, e.getMessage());
+      return;
+    }
+    this.evict();
+  }
+
+  /**
+   * 快取總大小超過上限時，依最後使用時間由舊到新刪除項目
+   */
+  private void evict() {
+    Path directory = applicationProperties.getCache().getDirectory();
+    long maxSize = applicationProperties.getCache().getMaxSize().toBytes();
+    List<Entry> entries = new ArrayList<>();
+    long totalBytes = 0;
+    try (Stream<Path> stream = Files.list(directory)) {
+      for (Path path : stream.toList()) {
+        String name = path.getFileName().toString();
+        if (name.startsWith(TEMPORARY_PREFIX)) {
+          if (
+            Files
+              .getLastModifiedTime(path)
+              .toInstant()
+              .isBefore(Instant.now().minus(STALE_TEMPORARY))
+          ) {
+            StagingTree.deleteRecursively(path);
+          }
+          continue;
+        }
+        Path size = path.resolve(SIZE);
+        if (!Files.isRegularFile(size)) {
+          continue;
+        }
+        Entry entry = new Entry(
+          path,
+          Long.parseLong(Files.readString(size).trim()),
+          Files.getLastModifiedTime(size)
+        );
+        entries.add(entry);
+        totalBytes += entry.bytes();
+      }
+    } catch (IOException | NumberFormatException e) {
+      log.warn("⚠️ 無法讀取快取目錄 {}: {}", directory, e.getMessage());
+      return;
+    }
+    entries.sort(Comparator.comparing(Entry::lastUsed));
+    for (Entry entry : entries) {
+      if (totalBytes <= maxSize) {
+        break;
+      }
+      try {
+        // 先 rename 讓其他行程不再命中，再刪除內容
+        Path evicted = Files.createTempDirectory(directory, TEMPORARY_PREFIX);
+        Files.move(
+          entry.path(),
+          evicted.resolve(entry.path().getFileName()),
+          StandardCopyOption.ATOMIC_MOVE
+        );
+        StagingTree.deleteRecursively(evicted);
+        totalBytes -= entry.bytes();
+        log.info(
+          "🧹 淘汰快取項目 {} ({} bytes)",
+          entry.path().getFileName(),
+          entry.bytes()
+        );
+      } catch (IOException e) {
+        log.warn(
+          "⚠️ 無法淘汰快取項目 {}: {}",
+          entry.path().getFileName(),
+          e.getMessage()
+        );
+      }
+    }
+  }
+
+  private Path entry(String key) {
+    return applicationProperties.getCache().getDirectory().resolve(key);
+  }
+
+  /**
+   * 複製目錄下的所有檔案並保留執行權限
+   *
+   * @param hardLink 以 hard link 取代複製，跨檔案系統無法建立時改為複製
+   */
+  private static CacheEntryVo copyTree(
+    String key,
+    Path source,
+    Path target,
+    boolean hardLink
+  ) throws IOException {
+    int[] files = { 0 };
+    long[] bytes = { 0 };
+    Files.walkFileTree(
+      source,
+      new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult preVisitDirectory(
+          Path directory,
+          BasicFileAttributes attributes
+        ) throws IOException {
+          Files.createDirectories(target.resolve(source.relativize(directory)));
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(
+          Path file,
+          BasicFileAttributes attributes
+        ) throws IOException {
+          Path copy = target.resolve(source.relativize(file));
+          if (!hardLink || !link(file, copy)) {
+            Files.copy(file, copy, StandardCopyOption.COPY_ATTRIBUTES);
+          }
+          files[0]++;
+          bytes[0] += attributes.size();
+          return FileVisitResult.CONTINUE;
+        }
+      }
+    );
+    return new CacheEntryVo(key, files[0], bytes[0]);
+  }
+
+  private static boolean link(Path existing, Path link) {
+    try {
+      Files.createLink(link, existing);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  private record Entry(Path path, long bytes, FileTime lastUsed) {}
+}
@@ -0,0 +1,259 @@
+package io.github.cloudtechnology.generator.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.github.cloudtechnology.generator.service.staging.GenerationManifest;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openapitools.codegen.DefaultGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * swagger-parser 解析並解開 $ref 後的 OpenAPI 模型快取，相同的規格再次產生時不再讀取與解析 YAML
+ *
+ * 快取鍵包含規格本身與以相對路徑 $ref 引用的所有檔案內容，以及 generator、openapi-generator
+ * 與 swagger-parser 的版本；引用遠端 URL 的規格無法確認內容是否改變，不使用快取。
+ * 每個項目是快取目錄下的 {@code <key>.json}，第一行為規格版本，其後是 swagger-core 輸出的 JSON；
+ * 先寫在暫存檔再 rename，同時執行的其他行程只會讀到完整的項目，檔案的修改時間即最後使用時間
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenApiModelCache {
+
+  /**
+   * 項目格式改變時遞增，舊的項目不再命中
+   */
+  private static final String FORMAT = "1";
+  private static final String EXTENSION = ".json";
+  private static final String TEMPORARY_PREFIX = ".tmp-";
+
+  /**
+   * YAML 與 JSON 的 $ref，只取 # 之前的檔案部分，文件內的 #/components/... 不會符合
+   */
+  private static final Pattern REF = Pattern.compile(
+    "[\"']?\\$ref[\"']?\\s*:\\s*[\"']?([^\"'#\\s,}]+)"
+  );
+
+  private final ApplicationProperties applicationProperties;
+
+  public boolean isEnabled() {
+    return applicationProperties.getModelCache().isEnabled();
+  }
+
+  /**
+   * @param specFile OpenAPI 規格檔案
+   * @return 快取鍵，規格引用遠端檔案時為 empty
+   */
+  public Optional<String> key(Path specFile) throws IOException {
+    Optional<String> specHash = specHash(specFile);
+    if (specHash.isEmpty()) {
+      log.info("🌐 規格引用遠端檔案，不使用 OpenAPI 模型快取");
+      return Optional.empty();
+    }
+    return Optional.of(
+      GenerationManifest.hash(
+        FORMAT,
+        GenerationManifest.version(),
+        DefaultGenerator.class.getPackage().getImplementationVersion(),
+        OpenAPIParser.class.getPackage().getImplementationVersion(),
+        specHash.get()
+      )
+    );
+  }
+
+  /**
+   * 規格本身與以相對路徑 $ref 引用的所有檔案內容的雜湊，
+   * 產生結果快取與增量產生也以此判斷規格是否改變
+   *
+   * @return 規格引用遠端檔案、無法確認內容是否改變時為 empty
+   */
+  public static Optional<String> specHash(Path specFile) throws IOException {
+    Map<Path, String> hashes = new LinkedHashMap<>();
+    if (!collect(specFile.toAbsolutePath().normalize(), hashes)) {
+      return Optional.empty();
+    }
+    return Optional.of(GenerationManifest.hash(hashes.values().toArray()));
+  }
+
+  /**
+   * 命中時回傳新的模型實例，呼叫端可以直接修改；讀取失敗時刪除項目並視為未命中
+   */
+  public Optional<OpenAPI> load(String key) {
+    Path entry = this.entry(key);
+    long start = System.nanoTime();
+    byte[] content;
+    try {
+      content = Files.readAllBytes(entry);
+    } catch (NoSuchFileException e) {
+      log.info("🔍 OpenAPI 模型快取未命中 {}", key);
+      return Optional.empty();
+    } catch (IOException e) {
+      log.warn("⚠️ 無法讀取 OpenAPI 模型快取 {}: {}", key, e.getMessage());
+      return Optional.empty();
+    }
+    try {
+      int newline = indexOf(content, (byte) '\n');
+      SpecVersion specVersion = SpecVersion.valueOf(
+        new String(content, 0, newline, StandardCharsets.US_ASCII)
+      );
+      OpenAPI openAPI = mapper(specVersion)
+        .readValue(content, newline + 1, content.length - newline - 1, OpenAPI.class);
+      openAPI.setSpecVersion(specVersion);
+      Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+      log.info(
+        "⚡ OpenAPI 模型快取命中 {}，耗時 {} ms",
+        key,
+        (System.nanoTime() - start) / 1_000_000
+      );
+      return Optional.of(openAPI);
+    } catch (IOException | RuntimeException e) {
+      log.warn("⚠️ OpenAPI 模型快取 {} 已損毀，重新解析: {}", key, e.getMessage());
+      this.deleteQuietly(entry);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * 必須在產生前呼叫，openapi-generator 產生時會就地修改模型；
+   * 寫入失敗只記錄警告，不影響產生流程
+   */
+  public void store(String key, OpenAPI openAPI) {
+    Path entry = this.entry(key);
+    Path temporary = null;
+    try {
+      Files.createDirectories(entry.getParent());
+      temporary = Files.createTempFile(entry.getParent(), TEMPORARY_PREFIX, EXTENSION);
+      SpecVersion specVersion = openAPI.getSpecVersion() == null
+        ? SpecVersion.V30
+        : openAPI.getSpecVersion();
+      try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+        outputStream.write((specVersion.name() + "\n").getBytes(StandardCharsets.US_ASCII));
+        mapper(specVersion).writeValue(outputStream, openAPI);
+      }
+      try {
+        Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+      }
+      log.info("💾 已存入 OpenAPI 模型快取 {} ({} KB)", key, Files.size(entry) / 1024);
+      this.evict();
+    } catch (IOException | RuntimeException e) {
+      log.warn("⚠️ 無法寫入 OpenAPI 模型快取 {}: {}", key, e.getMessage());
+      if (temporary != null) {
+        this.deleteQuietly(temporary);
+      }
+    }
+  }
+
+  /**
+   * 依出現順序收集規格與引用檔案的雜湊，同一個檔案只計算一次
+   *
+   * @return 沒有引用遠端檔案
+   */
+  private static boolean collect(Path file, Map<Path, String> hashes)
+    throws IOException {
+    if (hashes.containsKey(file)) {
+      return true;
+    }
+    byte[] content = Files.readAllBytes(file);
+    hashes.put(file, GenerationManifest.sha256(content));
+    Matcher matcher = REF.matcher(new String(content, StandardCharsets.UTF_8));
+    while (matcher.find()) {
+      String reference = matcher.group(1);
+      if (reference.contains("://")) {
+        return false;
+      }
+      Path referenced = file
+        .resolveSibling(URLDecoder.decode(reference, StandardCharsets.UTF_8))
+        .normalize();
+      // 不存在的檔案交給 swagger-parser 回報
+      if (Files.isRegularFile(referenced) && !collect(referenced, hashes)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 只保留最近使用的 maxEntries 個項目
+   */
+  private void evict() throws IOException {
+    int maxEntries = applicationProperties.getModelCache().getMaxEntries();
+    List<Path> entries;
+    try (Stream<Path> stream = Files.list(this.directory())) {
+      entries = stream
+        .filter(path -> {
+          String name = path.getFileName().toString();
+          return name.endsWith(EXTENSION) && !name.startsWith(TEMPORARY_PREFIX);
+        })
+        .sorted(Comparator.comparing(OpenApiModelCache::lastModified).reversed())
+        .toList();
+    }
+    for (Path entry : entries.subList(Math.min(maxEntries, entries.size()), entries.size())) {
+      this.deleteQuietly(entry);
+      log.info("🧹 淘汰 OpenAPI 模型快取 {}", entry.getFileName());
+    }
+  }
+
+  private Path directory() {
+    return applicationProperties.getModelCache().getDirectory();
+  }
+
+  private Path entry(String key) {
+    return this.directory().resolve(key + EXTENSION);
+  }
+
+  private void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("⚠️ 無法刪除 {}: {}", path, e.getMessage());
+    }
+  }
+
+  private static ObjectMapper mapper(SpecVersion specVersion) {
+    return specVersion == SpecVersion.V31 ? Json31.mapper() : Json.mapper();
+  }
+
+  private static FileTime lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static int indexOf(byte[] content, byte value) {
+    for (int i = 0; i < content.length; i++) {
+      if (content[i] == value) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("missing spec version header");
+  }
+}
@@ -1,45 +1,27 @@
 package io.github.cloudtechnology.generator.service.impl;
 
-import com.samskivert.mustache.Mustache;
+import io.github.cloudtechnology.generator.jfr.TemplateEvent;
 import io.github.cloudtechnology.generator.service.ProjectGenerator;
+import io.github.cloudtechnology.generator.service.asset.StaticAssetBundle;
+import io.github.cloudtechnology.generator.service.template.TemplateRegistry;
 import io.github.cloudtechnology.generator.vo.ProjectVo;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.StandardOpenOption;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class GradleProjectGenerator implements ProjectGenerator {
 
-  private final Mustache.Compiler compiler;
+  private final TemplateRegistry templateRegistry;
+  private final StaticAssetBundle staticAssetBundle;
 
   @Override
   public void generate(ProjectVo projectVo) throws Exception {
-    Path javaPath = Path.of("src", "main", "java");
-    // 取出設定的 package name, 並將 . 換成檔案路徑的分隔符號
-    Path javaMainPath = javaPath.resolve(
-      projectVo.packageName().replaceAll("\\.", File.separator)
-    );
-    Path configurationPath = javaPath.resolve(
-      projectVo.packageName().replaceAll("\\.", File.separator) +
-      File.separator +
-      "configuration"
-    );
-
+    // 檔案只寫入記憶體中的 staging，依序產生，CPU 時間與配置的記憶體都計入 SCAFFOLD 階段
     //
     this.writeTemplate(
         projectVo,
@@ -164,20 +146,18 @@ public class GradleProjectGenerator implements ProjectGenerator {
     String templatePath,
     Path outputPath
   ) throws IOException {
-    Path projectTempPath = projectVo.projectTempPath();
-    ClassPathResource resource = new ClassPathResource(templatePath);
-    // Resource resource = new ClassPathResource(templatePath);
-    String templateContent = this.readResourceToString(templatePath);
-    String outputContent = compiler.compile(templateContent).execute(projectVo);
-    Files.createDirectories(projectTempPath.resolve(outputPath));
-    Files.writeString(
-      projectTempPath
-        .resolve(outputPath)
-        .resolve(resource.getFilename().replaceAll("\\.mustache", "")),
-      outputContent,
-      StandardCharsets.UTF_8,
-      StandardOpenOption.CREATE_NEW
-    );
+    TemplateEvent event = new TemplateEvent();
+    event.begin();
+    String outputContent = templateRegistry.render(templatePath, projectVo);
+    String fileName = Path.of(templatePath).getFileName().toString();
+    Path outputFile = outputPath.resolve(fileName.replaceAll("\\.mustache", ""));
+    projectVo.sink().writeString(outputFile, outputContent);
+    if (event.shouldCommit()) {
+      event.template = templatePath;
+      event.output = outputFile.toString();
+      event.bytes = outputContent.getBytes(StandardCharsets.UTF_8).length;
+      event.commit();
+    }
   }
 
   private void copyClasspathFile(
@@ -185,54 +165,22 @@ public class GradleProjectGenerator implements ProjectGenerator {
     String classpathFilePath,
     Path outputPath
   ) throws IOException {
-    Path projectTempPath = projectVo.projectTempPath();
-    // 確保輸出目錄存在
-    Files.createDirectories(projectTempPath.resolve(outputPath));
-    // 使用 try-with-resources 以確保流正確關閉
-    try (
-      InputStream resourceStream = new ClassPathResource(
-        classpathFilePath
-      ).getInputStream()
-    ) {
-      // 定義目標文件路徑
-      Path targetPath = projectTempPath
-        .resolve(outputPath)
-        .resolve(Paths.get(classpathFilePath).getFileName());
-      log.info("resourcePath={}", classpathFilePath);
-      log.info("outputPath={}", outputPath);
-      // 將流覆制到目標位置
-      Files.copy(
-        resourceStream,
-        targetPath,
-        StandardCopyOption.REPLACE_EXISTING
-      );
-      // 檢查是否為gradlew文件，且非Windows系統
-      if (
-        targetPath.getFileName().toString().equals("gradlew") &&
-        !System.getProperty("os.name").startsWith("Windows")
-      ) {
-        // 設置文件為可執行
-        File file = targetPath.toFile();
-        boolean result = file.setExecutable(true, false);
-        if (!result) {
-          log.warn("Failed to set execute permission for {}", targetPath);
-        }
-      }
-    }
+    // 定義目標文件路徑
+    Path targetPath = outputPath.resolve(
+      Paths.get(classpathFilePath).getFileName()
+    );
+    // gradlew 標記為可執行，不論產生器在哪個系統上執行，壓縮檔內都會記錄 0755；
+    // 直接寫入 Windows 的磁碟時沒有作用
+    boolean executable = targetPath.getFileName().toString().equals("gradlew");
+    // 靜態檔案在建置時已打包，寫入全新目錄時直接從 bundle 複製
+    staticAssetBundle.stage(
+      projectVo.sink(),
+      classpathFilePath,
+      targetPath,
+      executable
+    );
   }
 
-  private String readResourceToString(String filePath) {
-    try {
-      String fileText = IOUtils.toString(
-        getClass().getClassLoader().getResourceAsStream(filePath),
-        "UTF-8"
-      );
-      return fileText;
-    } catch (IOException e) {
-      e.printStackTrace();
-      return null;
-    }
-  }
 
   // private String readResourceToString(Resource resource) throws IOException {
   // return Files.readString(Path.of(resource.getURI()), StandardCharsets.UTF_8);
@@ -242,32 +190,4 @@ public class GradleProjectGenerator implements ProjectGenerator {
   // Resource resource = new ClassPathResource(path);
   // return Files.readString(Path.of(resource.getURI()), StandardCharsets.UTF_8);
   // }
-
-  private void unzipDirectory(Path zipFile, Path targetDirectory)
-    throws IOException {
-    if (!Files.exists(zipFile)) {
-      return;
-    }
-    if (!Files.exists(targetDirectory)) {
-      Files.createDirectory(targetDirectory);
-    }
-    try (
-      ZipInputStream zipInputStream = new ZipInputStream(
-        Files.newInputStream(zipFile)
-      )
-    ) {
-      ZipEntry entry;
-      while ((entry = zipInputStream.getNextEntry()) != null) {
-        final Path toPath = targetDirectory.resolve(entry.getName());
-        if (entry.isDirectory()) {
-          Files.createDirectory(toPath);
-        } else {
-          if (!Files.exists(toPath.getParent())) {
-            Files.createDirectories(toPath.getParent());
-          }
-          Files.copy(zipInputStream, toPath);
-        }
-      }
-    }
-  }
 }
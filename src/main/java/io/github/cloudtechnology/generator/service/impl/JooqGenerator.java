@@ -1,21 +1,22 @@
 package io.github.cloudtechnology.generator.service.impl;
 
-import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Arrays;
 
 import org.jooq.codegen.GenerationTool;
 import org.jooq.meta.jaxb.Configuration;
 import org.jooq.meta.jaxb.Database;
 import org.jooq.meta.jaxb.Generate;
 import org.jooq.meta.jaxb.Generator;
-import org.jooq.meta.jaxb.Jdbc;
+import org.jooq.meta.jaxb.Property;
 import org.jooq.meta.jaxb.Strategy;
 import org.jooq.meta.jaxb.Target;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import io.github.cloudtechnology.generator.service.RepositoryGenerator;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
 import io.github.cloudtechnology.generator.vo.RepositoryVo;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,9 +25,11 @@ import lombok.extern.slf4j.Slf4j;
  * https://www.jooq.org/doc/latest/manual/code-generation/codegen-programmatic/
  * https://www.jooq.org/doc/latest/manual/code-generation/codegen-configuration/
  * https://www.jooq.org/doc/latest/manual/code-generation/codegen-custom-code/
+ * https://www.jooq.org/doc/latest/manual/code-generation/codegen-xml/
  */
 @Slf4j
 @Component
+@Lazy
 public class JooqGenerator implements RepositoryGenerator {
 
   @Override
@@ -43,6 +46,8 @@ public class JooqGenerator implements RepositoryGenerator {
     generate.withValidationAnnotations(Boolean.TRUE);
     generate.setSpringAnnotations(Boolean.TRUE);
     generate.setGlobalObjectReferences(Boolean.FALSE);
+    // 不產生 tables/*.java，專案只使用 POJO，schema 類別由 SimpleRepositoryGenerator 略過
+    generate.setTables(Boolean.FALSE);
     generate.setPojosAsJavaRecordClasses(Boolean.FALSE);
     
     // 正確的 API 來禁用 default catalog 和 schema 檔案生成
@@ -56,15 +61,17 @@ public class JooqGenerator implements RepositoryGenerator {
     // 🎯 使用我們的自定義生成器來產生簡潔的 Repository
     String generatorName = "io.github.cloudtechnology.generator.jooq.SimpleRepositoryGenerator";
 
+    // JOOQ 只能輸出到目錄，先寫到本機暫存目錄再收進 staging，暫存目錄只會有需要的檔案
+    Path outputDirectory = Files.createTempDirectory("jooq-");
+    // 使用共用的 schema 快照，不再由 JOOQ 自行連線讀取資料庫目錄
+    Path schemaFile = Files.createTempFile("jooq-schema-", ".xml");
+    Files.writeString(
+      schemaFile,
+      repositoryVo.schemaSnapshot().xml(),
+      StandardCharsets.UTF_8
+    );
+
     Configuration configuration = new org.jooq.meta.jaxb.Configuration()
-      // Configure the database connection here
-      .withJdbc(
-        new Jdbc()
-          .withDriver("org.postgresql.Driver")
-          .withUrl(repositoryVo.dbUrl())
-          .withUser(repositoryVo.dbUsername())
-          .withPassword(repositoryVo.dbPassword())
-      )
       .withGenerator(
         new Generator()
           .withName(
@@ -72,7 +79,13 @@ public class JooqGenerator implements RepositoryGenerator {
           )
           .withDatabase(
             new Database()
-              .withName("org.jooq.meta.postgres.PostgresDatabase")
+              .withName("org.jooq.meta.xml.XMLDatabase")
+              .withProperties(
+                new Property().withKey("dialect").withValue("POSTGRES"),
+                new Property()
+                  .withKey("xmlFile")
+                  .withValue(schemaFile.toAbsolutePath().toString())
+              )
               .withIncludes(".*")
               .withExcludes(
                 "flyway_schema_history | databasechangelog | databasechangeloglock"
@@ -91,35 +104,19 @@ public class JooqGenerator implements RepositoryGenerator {
               .withPackageName(
                 repositoryVo.packageName() + ".infrastructure.repositories"
               )
-              .withDirectory(repositoryVo.projectTempPath() + "/src/main/java")
+              .withDirectory(outputDirectory.toAbsolutePath().toString())
           )
       );
 
-    GenerationTool.generate(configuration);
-
-    Path repositoriePath = Paths.get(
-      repositoryVo.projectTempPath() +
-      "/src/main/java/" +
-      repositoryVo.packageName().replaceAll("\\.", File.separator) +
-      File.separator +
-      "infrastructure" +
-      File.separator +
-      "repositories"
-    );
-    log.debug("repositoriePath={}", repositoriePath);
-    
-    // 清理 JOOQ 自動生成的不需要的檔案
-    Paths.get(repositoriePath + "/DefaultCatalog.java").toFile().delete();
-    Paths.get(repositoriePath + "/Public.java").toFile().delete();
-    Paths.get(repositoriePath + "/PublicEntity.java").toFile().delete();
-    
-    log.info("🧹 已清理 JOOQ 自動生成的不需要檔案: DefaultCatalog.java, Public.java, PublicEntity.java");
-
-    Path tablesPath = Paths.get(repositoriePath + "/tables");
-    if (null != tablesPath && null != tablesPath.toFile().listFiles()) {
-      Arrays.stream(tablesPath.toFile().listFiles())
-        .filter(File::isFile)
-        .forEach(File::delete);
+    try {
+      GenerationTool.generate(configuration);
+      int count = repositoryVo
+        .sink()
+        .absorb(outputDirectory, Path.of("src", "main", "java"), path -> true);
+      log.info("✅ JOOQ 產生 {} 個檔案", count);
+    } finally {
+      Files.deleteIfExists(schemaFile);
+      StagingTree.deleteRecursively(outputDirectory);
     }
   }
-} 
\ No newline at end of file
+}
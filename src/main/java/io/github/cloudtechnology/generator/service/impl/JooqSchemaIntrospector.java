@@ -0,0 +1,89 @@
+package io.github.cloudtechnology.generator.service.impl;
+
+import io.github.cloudtechnology.generator.jfr.JdbcEvents;
+import io.github.cloudtechnology.generator.service.SchemaIntrospector;
+import io.github.cloudtechnology.generator.vo.SchemaSnapshotVo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Set;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.SQLDialect;
+import org.jooq.Source;
+import org.jooq.impl.DSL;
+import org.jooq.util.xml.jaxb.InformationSchema;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * 透過 jOOQ Meta 一次讀取資料庫目錄，建立 JOOQ 與 Liquibase 共用的 schema 快照
+ * https://www.jooq.org/doc/latest/manual/sql-execution/meta-data/
+ */
+@Slf4j
+@Component("schemaIntrospector")
+@Lazy
+public class JooqSchemaIntrospector implements SchemaIntrospector {
+
+  static final String INPUT_SCHEMA = "public";
+
+  /**
+   * 版本控制工具本身的資料表，不屬於應用程式 schema
+   */
+  static final Set<String> EXCLUDED_TABLES = Set.of(
+    "flyway_schema_history",
+    "databasechangelog",
+    "databasechangeloglock"
+  );
+
+  @Override
+  public SchemaSnapshotVo introspect(DataSource dataSource) throws Exception {
+    long start = System.nanoTime();
+    // 連線由 ProjectService 建立的連線池提供，close() 只會歸還給連線池；
+    // 每次目錄查詢都會記錄一筆 JFR MetadataQueryEvent
+    try (
+      Connection connection = JdbcEvents.instrument(dataSource.getConnection())
+    ) {
+      // Meta 為延遲載入，必須在連線關閉前完成 informationSchema() 的讀取
+      InformationSchema informationSchema = DSL
+        .using(connection, SQLDialect.POSTGRES)
+        .meta()
+        .filterSchemas(schema -> INPUT_SCHEMA.equals(schema.getName()))
+        .filterTables(table -> !EXCLUDED_TABLES.contains(table.getName()))
+        .informationSchema();
+      SchemaSnapshotVo snapshot = SchemaSnapshotVo.of(informationSchema);
+      log.info(
+        "📸 已讀取 schema 快照: {} 個資料表，耗時 {} ms",
+        informationSchema.getTables().size(),
+        (System.nanoTime() - start) / 1_000_000
+      );
+      return snapshot;
+    }
+  }
+
+  @Override
+  public SchemaSnapshotVo introspect(Path ddlFile) throws Exception {
+    long start = System.nanoTime();
+    // 未指定 schema 的資料表放到 public，與讀取資料庫時的結果相同
+    String ddl =
+      "CREATE SCHEMA " +
+      INPUT_SCHEMA +
+      ";\nSET SCHEMA " +
+      INPUT_SCHEMA +
+      ";\n" +
+      Files.readString(ddlFile);
+    InformationSchema informationSchema = DSL
+      .using(SQLDialect.POSTGRES)
+      .meta(Source.of(ddl))
+      .filterSchemas(schema -> INPUT_SCHEMA.equals(schema.getName()))
+      .filterTables(table -> !EXCLUDED_TABLES.contains(table.getName()))
+      .informationSchema();
+    log.info(
+      "📸 已解析 DDL {}: {} 個資料表，耗時 {} ms",
+      ddlFile,
+      informationSchema.getTables().size(),
+      (System.nanoTime() - start) / 1_000_000
+    );
+    return SchemaSnapshotVo.of(informationSchema);
+  }
+}
@@ -2,33 +2,53 @@ package io.github.cloudtechnology.generator.service.impl;
 
 import io.github.cloudtechnology.generator.service.SchemaVersioning;
 import io.github.cloudtechnology.generator.vo.SchemaVo;
-import java.io.FileOutputStream;
-import java.io.PrintStream;
-import java.nio.file.Files;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import liquibase.CatalogAndSchema;
-import liquibase.Liquibase;
-import liquibase.command.CommandScope;
-import liquibase.database.Database;
-import liquibase.database.DatabaseFactory;
-import liquibase.database.jvm.JdbcConnection;
-import liquibase.diff.output.DiffOutputControl;
-import liquibase.diff.output.changelog.DiffToChangeLog;
-import liquibase.resource.ClassLoaderResourceAccessor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.AddForeignKeyConstraintChange;
+import liquibase.change.core.AddUniqueConstraintChange;
+import liquibase.change.core.CreateIndexChange;
+import liquibase.change.core.CreateSequenceChange;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.CreateViewChange;
+import liquibase.changelog.ChangeSet;
 import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
-import liquibase.structure.core.Column;
-import liquibase.structure.core.Data;
-import liquibase.structure.core.ForeignKey;
-import liquibase.structure.core.Index;
-import liquibase.structure.core.PrimaryKey;
-import liquibase.structure.core.Sequence;
-import liquibase.structure.core.Table;
-import liquibase.structure.core.UniqueConstraint;
-import liquibase.structure.core.View;
+import liquibase.statement.DatabaseFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DataType;
+import org.jooq.SQLDialect;
+import org.jooq.exception.SQLDialectNotSupportedException;
+import org.jooq.impl.DefaultDataType;
+import org.jooq.util.xml.jaxb.Column;
+import org.jooq.util.xml.jaxb.ForeignKeyRule;
+import org.jooq.util.xml.jaxb.Index;
+import org.jooq.util.xml.jaxb.IndexColumnUsage;
+import org.jooq.util.xml.jaxb.InformationSchema;
+import org.jooq.util.xml.jaxb.KeyColumnUsage;
+import org.jooq.util.xml.jaxb.ReferentialConstraint;
+import org.jooq.util.xml.jaxb.Sequence;
+import org.jooq.util.xml.jaxb.Table;
+import org.jooq.util.xml.jaxb.TableConstraint;
+import org.jooq.util.xml.jaxb.TableConstraintType;
+import org.jooq.util.xml.jaxb.TableType;
+import org.jooq.util.xml.jaxb.View;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 /**
  * https://www.liquibase.com/blog/3-ways-to-run-liquibase
@@ -38,78 +58,460 @@ import org.springframework.stereotype.Component;
  * https://tolkiana.com/managing-database-migrations-with-liquibase-and-spring-boot/
  * 2023/04/20 generateChangeLog Deprecated 被棄用 待修改
  * https://stackoverflow.com/questions/76047207/liquibase-core-update-method-does-not-create-databasechangeloglock-table
+ *
+ * 不再透過 generateChangeLog 另外對資料庫做一次完整快照，
+ * 而是將共用的 schema 快照轉成 Liquibase Change，再交給 YamlChangeLogSerializer 輸出
  */
+@Slf4j
 @Component
+@Lazy
 public class LiquibaseGenerator implements SchemaVersioning {
 
+  private static final Pattern NEXTVAL = Pattern.compile(
+    "nextval\\('(?:[^'.]+\\.)?\"?([^'\"]+)\"?'(?:::regclass)?\\)",
+    Pattern.CASE_INSENSITIVE
+  );
+  private static final Pattern STRING_LITERAL = Pattern.compile(
+    "^'((?:[^']|'')*)'(?:::[\\w\\s]+)?$"
+  );
+  private static final Pattern NUMERIC_LITERAL = Pattern.compile(
+    "^-?\\d+(\\.\\d+)?$"
+  );
+
   @Override
   public void generate(SchemaVo schemaVo) throws Exception {
-    Connection connection = null;
-    String catalogName;
-    String schemaName;
+    InformationSchema informationSchema = schemaVo
+      .schemaSnapshot()
+      .informationSchema();
 
-    try {
-      Class.forName("org.postgresql.Driver");
-      connection = DriverManager.getConnection(
-        schemaVo.dbUrl(),
-        schemaVo.dbUsername(),
-        schemaVo.dbPassword()
+    // 以 schema 指紋作為 changeSet id 前綴，同一份 schema 產生的內容固定不變
+    ChangeSetFactory changeSets = new ChangeSetFactory(
+      schemaVo.schemaSnapshot().fingerprint().substring(0, 13)
+    );
+    Set<String> sequenceColumns = new HashSet<>();
+    for (Column column : informationSchema.getColumns()) {
+      Matcher matcher = NEXTVAL.matcher(
+        Objects.toString(column.getColumnDefault(), "")
       );
+      if (matcher.find()) {
+        sequenceColumns.add(matcher.group(1));
+      }
+    }
 
-      // database = new PostgresDatabase();
-
-      Database database = DatabaseFactory.getInstance()
-        .findCorrectDatabaseImplementation(new JdbcConnection(connection));
-      // Liquibase liquibase = new liquibase.Liquibase(
-      //         "",
-      //         new ClassLoaderResourceAccessor(),
-      //         database);
-      // liquibase.update(new Contexts(), new LabelExpression());
+    // 與 generateChangeLog 相同的輸出順序
+    for (Sequence sequence : informationSchema.getSequences()) {
+      // serial 欄位自帶的序列由 autoIncrement 表示，不另外建立
+      if (!sequenceColumns.contains(sequence.getSequenceName())) {
+        changeSets.add(this.createSequence(sequence));
+      }
+    }
+    List<Table> tables = informationSchema
+      .getTables()
+      .stream()
+      .filter(table -> table.getTableType() != TableType.VIEW)
+      .sorted(Comparator.comparing(Table::getTableName))
+      .toList();
+    for (Table table : tables) {
+      changeSets.add(this.createTable(informationSchema, table));
+    }
+    for (TableConstraint constraint : this.constraints(
+        informationSchema,
+        TableConstraintType.UNIQUE
+      )) {
+      changeSets.add(this.addUniqueConstraint(informationSchema, constraint));
+    }
+    Set<String> constraintNames = informationSchema
+      .getTableConstraints()
+      .stream()
+      .map(TableConstraint::getConstraintName)
+      .collect(Collectors.toSet());
+    for (Index index : informationSchema.getIndexes()) {
+      // 主鍵與唯一約束會自動建立同名索引
+      if (!constraintNames.contains(index.getIndexName())) {
+        changeSets.add(this.createIndex(informationSchema, index));
+      }
+    }
+    for (TableConstraint constraint : this.constraints(
+        informationSchema,
+        TableConstraintType.FOREIGN_KEY
+      )) {
+      changeSets.add(this.addForeignKey(informationSchema, constraint));
+    }
+    for (View view : informationSchema.getViews()) {
+      CreateViewChange change = new CreateViewChange();
+      change.setViewName(view.getTableName());
+      change.setSelectQuery(view.getViewDefinition());
+      changeSets.add(change);
+    }
 
-      // CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName,
-      // schemaName);
-      DiffToChangeLog changeLogWriter = new DiffToChangeLog(
-        new DiffOutputControl(false, false, true, null)
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    new YamlChangeLogSerializer().write(changeSets.changeSets, outputStream);
+    schemaVo
+      .sink()
+      .write(
+        Path.of(
+          "src",
+          "main",
+          "resources",
+          "db",
+          "changelog",
+          "history",
+          "changelog-init.yaml"
+        ),
+        outputStream.toByteArray()
       );
+    log.info(
+      "✅ Liquibase changelog 產生完成，共 {} 個 changeSet",
+      changeSets.changeSets.size()
+    );
+  }
 
-      Path path = Paths.get(
-        schemaVo.projectTempPath() + "/src/main/resources/db/changelog/history"
-      );
-      Path pathCreate = Files.createDirectories(path);
+  private Change createTable(InformationSchema informationSchema, Table table) {
+    CreateTableChange change = new CreateTableChange();
+    change.setTableName(table.getTableName());
+    if (StringUtils.hasText(table.getComment())) {
+      change.setRemarks(table.getComment());
+    }
+
+    Map<String, String> primaryKeyColumns = this.constraints(
+        informationSchema,
+        TableConstraintType.PRIMARY_KEY
+      )
+      .stream()
+      .filter(constraint -> table.getTableName().equals(constraint.getTableName()))
+      .flatMap(constraint ->
+        this.keyColumns(informationSchema, constraint)
+          .stream()
+          .map(column -> Map.entry(column, constraint.getConstraintName()))
+      )
+      .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-      CommandScope generateChangelogCommand = new CommandScope(
-        "generateChangeLog"
+    informationSchema
+      .getColumns()
+      .stream()
+      .filter(column -> table.getTableName().equals(column.getTableName()))
+      .sorted(
+        Comparator.comparing(
+          Column::getOrdinalPosition,
+          Comparator.nullsLast(Comparator.naturalOrder())
+        )
+      )
+      .forEach(column -> {
+        ColumnConfig columnConfig = new ColumnConfig();
+        columnConfig.setName(column.getColumnName());
+        columnConfig.setType(this.columnType(column));
+        if (StringUtils.hasText(column.getComment())) {
+          columnConfig.setRemarks(column.getComment());
+        }
+        this.applyDefault(column, columnConfig);
+
+        ConstraintsConfig constraints = new ConstraintsConfig();
+        boolean hasConstraints = false;
+        String primaryKeyName = primaryKeyColumns.get(column.getColumnName());
+        if (primaryKeyName != null) {
+          constraints.setPrimaryKey(Boolean.TRUE);
+          constraints.setPrimaryKeyName(primaryKeyName);
+          hasConstraints = true;
+        }
+        if (Boolean.FALSE.equals(column.isIsNullable())) {
+          constraints.setNullable(Boolean.FALSE);
+          hasConstraints = true;
+        }
+        if (hasConstraints) {
+          columnConfig.setConstraints(constraints);
+        }
+        change.addColumn(columnConfig);
+      });
+    return change;
+  }
+
+  /**
+   * serial 與 identity 欄位轉成 autoIncrement，其餘依字面值或函式設定預設值
+   */
+  private void applyDefault(Column column, ColumnConfig columnConfig) {
+    String columnDefault = column.getColumnDefault();
+    if (
+      StringUtils.hasText(column.getIdentityGeneration()) ||
+      (columnDefault != null && NEXTVAL.matcher(columnDefault).find())
+    ) {
+      columnConfig.setAutoIncrement(Boolean.TRUE);
+      return;
+    }
+    if (!StringUtils.hasText(columnDefault)) {
+      return;
+    }
+    String value = columnDefault.trim();
+    Matcher stringLiteral = STRING_LITERAL.matcher(value);
+    if (stringLiteral.matches()) {
+      columnConfig.setDefaultValue(stringLiteral.group(1).replace("''", "'"));
+    } else if (NUMERIC_LITERAL.matcher(value).matches()) {
+      columnConfig.setDefaultValueNumeric(value);
+    } else if (
+      "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)
+    ) {
+      columnConfig.setDefaultValueBoolean(Boolean.valueOf(value));
+    } else {
+      columnConfig.setDefaultValueComputed(new DatabaseFunction(value));
+    }
+  }
+
+  /**
+   * 依 jOOQ 的資料型別定義組出含長度、精度的型別名稱；
+   * jOOQ 沒有對應的型別 (enum、domain 等自訂型別) 保留宣告的名稱，陣列以元素型別加上 [] 表示
+   */
+  private String columnType(Column column) {
+    String declared = StringUtils.hasText(column.getUdtName())
+      ? column.getUdtName()
+      : column.getDataType();
+    // PostgreSQL 的陣列型別宣告為 text[]，系統目錄中的名稱則為 _text
+    if (declared.endsWith("[]")) {
+      String element = declared.substring(0, declared.length() - 2);
+      return Objects.requireNonNullElse(this.knownType(column, element), element) +
+        "[]";
+    }
+    if (declared.startsWith("_")) {
+      String element = this.knownType(column, declared.substring(1));
+      if (element != null) {
+        return element + "[]";
+      }
+    }
+    return Objects.requireNonNullElse(this.knownType(column, declared), declared);
+  }
+
+  /**
+   * @return jOOQ 有對應的內建型別時回傳大寫的型別名稱，否則為 null
+   */
+  private String knownType(Column column, String typeName) {
+    DataType<?> dataType;
+    try {
+      dataType = DefaultDataType.getDataType(SQLDialect.POSTGRES, typeName);
+    } catch (SQLDialectNotSupportedException e) {
+      return null;
+    }
+    if (dataType.isOther() || dataType.isArray()) {
+      return null;
+    }
+    Integer length = column.getCharacterMaximumLength();
+    Integer precision = column.getNumericPrecision();
+    Integer scale = column.getNumericScale();
+    if (dataType.hasLength() && length != null && length > 0) {
+      dataType = dataType.length(length);
+    } else if (
+      dataType.hasPrecision() && precision != null && precision > 0
+    ) {
+      dataType = dataType.hasScale() && scale != null
+        ? dataType.precision(precision, scale)
+        : dataType.precision(precision);
+    }
+    return dataType.getCastTypeName().toUpperCase();
+  }
+
+  private Change createSequence(Sequence sequence) {
+    CreateSequenceChange change = new CreateSequenceChange();
+    change.setSequenceName(sequence.getSequenceName());
+    change.setStartValue(sequence.getStartValue());
+    change.setIncrementBy(sequence.getIncrement());
+    change.setMinValue(sequence.getMinimumValue());
+    change.setMaxValue(sequence.getMaximumValue());
+    change.setCycle(sequence.isCycleOption());
+    BigInteger cache = sequence.getCache();
+    if (cache != null && cache.signum() > 0) {
+      change.setCacheSize(cache);
+    }
+    return change;
+  }
+
+  private Change addUniqueConstraint(
+    InformationSchema informationSchema,
+    TableConstraint constraint
+  ) {
+    AddUniqueConstraintChange change = new AddUniqueConstraintChange();
+    change.setTableName(constraint.getTableName());
+    change.setConstraintName(constraint.getConstraintName());
+    change.setColumnNames(
+      String.join(", ", this.keyColumns(informationSchema, constraint))
+    );
+    return change;
+  }
+
+  private Change createIndex(InformationSchema informationSchema, Index index) {
+    CreateIndexChange change = new CreateIndexChange();
+    change.setIndexName(index.getIndexName());
+    change.setTableName(index.getTableName());
+    if (Boolean.TRUE.equals(index.isIsUnique())) {
+      change.setUnique(Boolean.TRUE);
+    }
+    informationSchema
+      .getIndexColumnUsages()
+      .stream()
+      .filter(usage ->
+        index.getIndexName().equals(usage.getIndexName()) &&
+        index.getTableName().equals(usage.getTableName())
+      )
+      .sorted(Comparator.comparingInt(IndexColumnUsage::getOrdinalPosition))
+      .forEach(usage -> {
+        AddColumnConfig column = new AddColumnConfig();
+        column.setName(usage.getColumnName());
+        if (Boolean.TRUE.equals(usage.isIsDescending())) {
+          column.setDescending(Boolean.TRUE);
+        }
+        change.addColumn(column);
+      });
+    return change;
+  }
+
+  /**
+   * PostgreSQL 的外鍵名稱只在同一個資料表內唯一，不同資料表可以有同名的外鍵；
+   * ReferentialConstraint 沒有資料表欄位，同一個 schema 內同名的外鍵依 jOOQ 匯出的順序配對
+   * (每個外鍵的 TableConstraint 與 ReferentialConstraint 是一起匯出的)。
+   * 被參考的主鍵或唯一約束會建立同名索引，名稱在 schema 內唯一
+   */
+  private Change addForeignKey(
+    InformationSchema informationSchema,
+    TableConstraint constraint
+  ) {
+    List<TableConstraint> sameName = informationSchema
+      .getTableConstraints()
+      .stream()
+      .filter(foreignKey ->
+        foreignKey.getConstraintType() == TableConstraintType.FOREIGN_KEY &&
+        Objects.equals(
+          constraint.getConstraintSchema(),
+          foreignKey.getConstraintSchema()
+        ) &&
+        constraint.getConstraintName().equals(foreignKey.getConstraintName())
+      )
+      .toList();
+    List<ReferentialConstraint> references = informationSchema
+      .getReferentialConstraints()
+      .stream()
+      .filter(referential ->
+        Objects.equals(
+          constraint.getConstraintSchema(),
+          referential.getConstraintSchema()
+        ) &&
+        constraint.getConstraintName().equals(referential.getConstraintName())
+      )
+      .toList();
+    int position = sameName.indexOf(constraint);
+    if (references.size() != sameName.size()) {
+      throw new IllegalStateException(
+        "Missing referential constraint " +
+        constraint.getConstraintName() +
+        " on " +
+        constraint.getTableName()
       );
-      generateChangelogCommand.addArgumentValue("database", database);
-      generateChangelogCommand.addArgumentValue(
-        "changelogFile",
-        pathCreate.toAbsolutePath() + "/changelog-init.yaml"
+    }
+    ReferentialConstraint reference = references.get(position);
+    TableConstraint referenced = informationSchema
+      .getTableConstraints()
+      .stream()
+      .filter(unique ->
+        (
+          unique.getConstraintType() == TableConstraintType.PRIMARY_KEY ||
+          unique.getConstraintType() == TableConstraintType.UNIQUE
+        ) &&
+        Objects.equals(
+          reference.getUniqueConstraintSchema(),
+          unique.getConstraintSchema()
+        ) &&
+        unique.getConstraintName().equals(reference.getUniqueConstraintName())
+      )
+      .reduce((first, second) -> {
+        throw new IllegalStateException(
+          "Ambiguous referenced key " +
+          reference.getUniqueConstraintName() +
+          " for " +
+          constraint.getConstraintName() +
+          " on " +
+          constraint.getTableName()
+        );
+      })
+      .orElseThrow(() ->
+        new IllegalStateException(
+          "Missing referenced key " + reference.getUniqueConstraintName()
+        )
       );
-      generateChangelogCommand.execute();
 
-      // liquibase.generateChangeLog(CatalogAndSchema.DEFAULT, changeLogWriter,
-      //         new PrintStream(new FileOutputStream(
-      //                 pathCreate.toAbsolutePath() + "/changelog-init.yaml")),
-      //         new YamlChangeLogSerializer(),
-      //         this.snapshotTypes());
+    AddForeignKeyConstraintChange change = new AddForeignKeyConstraintChange();
+    change.setConstraintName(constraint.getConstraintName());
+    change.setBaseTableName(constraint.getTableName());
+    change.setBaseColumnNames(
+      String.join(", ", this.keyColumns(informationSchema, constraint))
+    );
+    change.setReferencedTableName(referenced.getTableName());
+    change.setReferencedColumnNames(
+      String.join(", ", this.keyColumns(informationSchema, referenced))
+    );
+    change.setOnDelete(this.rule(reference.getDeleteRule()));
+    change.setOnUpdate(this.rule(reference.getUpdateRule()));
+    return change;
+  }
 
-      connection.close();
-    } catch (Exception e) {
-      throw e;
-    }
+  private String rule(ForeignKeyRule rule) {
+    return rule == null ? null : rule.name().replace('_', ' ');
+  }
+
+  private List<TableConstraint> constraints(
+    InformationSchema informationSchema,
+    TableConstraintType type
+  ) {
+    return informationSchema
+      .getTableConstraints()
+      .stream()
+      .filter(constraint -> constraint.getConstraintType() == type)
+      .sorted(
+        Comparator
+          .comparing(TableConstraint::getTableName)
+          .thenComparing(TableConstraint::getConstraintName)
+      )
+      .toList();
+  }
+
+  private List<String> keyColumns(
+    InformationSchema informationSchema,
+    TableConstraint constraint
+  ) {
+    return informationSchema
+      .getKeyColumnUsages()
+      .stream()
+      .filter(usage ->
+        constraint.getConstraintName().equals(usage.getConstraintName()) &&
+        Objects.equals(constraint.getTableSchema(), usage.getTableSchema()) &&
+        constraint.getTableName().equals(usage.getTableName())
+      )
+      .sorted(Comparator.comparingInt(KeyColumnUsage::getOrdinalPosition))
+      .map(KeyColumnUsage::getColumnName)
+      .toList();
   }
 
-  private Class[] snapshotTypes() {
-    return new Class[] {
-      UniqueConstraint.class,
-      Sequence.class,
-      Table.class,
-      View.class,
-      ForeignKey.class,
-      PrimaryKey.class,
-      Index.class,
-      Column.class,
-      Data.class,
-    };
+  /**
+   * 依序包裝 Change，id 格式與 generateChangeLog 相同: 前綴-序號
+   */
+  private static class ChangeSetFactory {
+
+    private final String idPrefix;
+    private final String author =
+      System.getProperty("user.name") + " (generated)";
+    private final List<ChangeSet> changeSets = new ArrayList<>();
+
+    ChangeSetFactory(String idPrefix) {
+      this.idPrefix = idPrefix;
+    }
+
+    void add(Change change) {
+      ChangeSet changeSet = new ChangeSet(
+        idPrefix + "-" + (changeSets.size() + 1),
+        author,
+        false,
+        false,
+        null,
+        null,
+        null,
+        null
+      );
+      changeSet.addChange(change);
+      changeSets.add(changeSet);
+    }
   }
 }
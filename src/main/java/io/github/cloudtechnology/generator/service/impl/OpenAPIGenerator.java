@@ -1,20 +1,30 @@
 package io.github.cloudtechnology.generator.service.impl;
 
 import io.github.cloudtechnology.generator.service.ApiGenerator;
+import io.github.cloudtechnology.generator.service.cache.OpenApiModelCache;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
 import io.github.cloudtechnology.generator.vo.ApiVo;
+import io.swagger.v3.oas.models.OpenAPI;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConfigLoader;
+import org.openapitools.codegen.CodegenConstants;
 import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.TemplatingEngineLoader;
 import org.openapitools.codegen.config.CodegenConfigurator;
-import org.springframework.core.io.ClassPathResource;
+import org.openapitools.codegen.config.GeneratorSettings;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ObjectUtils;
-import org.springframework.util.StringUtils;
 
 /**
  * 產生 api 檔案
@@ -24,102 +34,132 @@ import org.springframework.util.StringUtils;
 
 @Slf4j
 @Component
+@Lazy
+@RequiredArgsConstructor
 public class OpenAPIGenerator implements ApiGenerator {
 
-  protected Map<String, String> globalProperties = new HashMap<>();
-  protected Map<String, String> environmentVariables = new HashMap<>();
-  private String configurationFile;
-  private String generatorName = "spring";
+  /**
+   * 所有產生流程共用的不可變設定，單次產生的狀態只存在 generate 的區域變數，
+   * 多個專案可以同時呼叫同一個 bean
+   */
+  private static final String GENERATOR_NAME = "spring";
+
+  private final OpenApiModelCache openApiModelCache;
 
   @Override
   public void generate(ApiVo apiVo) throws IOException {
     // 輸入規格檔案
     File specFile = apiVo.specSource().toFile();
 
-    if (globalProperties == null) {
-      globalProperties = new HashMap<>();
-      // globalProperties.put("interfaceOnly", "true");
-    }
-
-    if (environmentVariables != null && environmentVariables.size() > 0) {
-      globalProperties.putAll(environmentVariables);
-      System.out.println(
-        "environmentVariables is deprecated and will be removed in version 5.1. Use globalProperties instead."
-      );
-    }
-
-    // attempt to read from config file
-    CodegenConfigurator configurator = CodegenConfigurator.fromFile(
-      configurationFile
-    );
-    // if a config file wasn't specified or we were unable to read it
-    if (configurator == null) {
-      configurator = new CodegenConfigurator();
-    }
-    if (!ObjectUtils.isEmpty(specFile)) {
-      configurator.setInputSpec(specFile.getAbsolutePath());
+    // 規格與引用的檔案沒有改變時使用上次解析的模型
+    Optional<String> cacheKey = openApiModelCache.isEnabled()
+      ? openApiModelCache.key(specFile.toPath())
+      : Optional.empty();
+    OpenAPI openAPI = cacheKey.flatMap(openApiModelCache::load).orElse(null);
+    if (openAPI == null) {
+      openAPI = parse(specFile);
+      // 產生時會就地修改模型，必須在產生前存入
+      OpenAPI parsed = openAPI;
+      cacheKey.ifPresent(key -> openApiModelCache.store(key, parsed));
     }
 
-    if (StringUtils.hasText(generatorName)) {
-      configurator.setGeneratorName(generatorName);
-    } else {
-      log.error("A generator name (generatorName) is required.");
-      throw new RuntimeException(
-        "The generator requires 'generatorName'. Refer to documentation for a list of options."
-      );
-    }
+    Map<String, Object> additionalProperties = new HashMap<String, Object>();
     // 客製化部分
-    configurator.addAdditionalProperty(
-      "disallowAdditionalPropertiesIfNotPresent",
-      false
-    );
-    configurator.addAdditionalProperty("hateoas", false);
-    configurator.addAdditionalProperty("interfaceOnly", true);
-    configurator.addAdditionalProperty("singleContentTypes", true);
-    configurator.addAdditionalProperty("skipDefaultInterface", true);
-    configurator.addAdditionalProperty("useSpringBoot3", true);
-    configurator.addAdditionalProperty("useTags", true);
-    configurator.addAdditionalProperty("validateSpec", false);
-    // configurator.addAdditionalProperty("globalProperty", "models,apis");
+    additionalProperties.put("disallowAdditionalPropertiesIfNotPresent", false);
+    additionalProperties.put("hateoas", false);
+    // 不輸出產生時間，內容相同的規格每次產生的檔案才會相同
+    additionalProperties.put("hideGenerationTimestamp", true);
+    additionalProperties.put("interfaceOnly", true);
+    additionalProperties.put("singleContentTypes", true);
+    additionalProperties.put("skipDefaultInterface", true);
+    additionalProperties.put("useSpringBoot3", true);
+    additionalProperties.put("useTags", true);
+    additionalProperties.put("validateSpec", false);
+    // additionalProperties.put("globalProperty", "models,apis");
 
-    // configurator.addAdditionalProperty("responseWrapper", "CompletableFuture");
+    // additionalProperties.put("responseWrapper", "CompletableFuture");
     //
-    configurator.setLibrary("spring-boot");
-
-    // configurator.setTemplateDir(Path.of(new ClassPathResource("templates/api").getURI()).toString());
-    configurator.setInvokerPackage(apiVo.packageName());
-    configurator.setApiPackage(apiVo.packageName() + ".interfaces.rest");
-    configurator.setModelPackage(apiVo.packageName() + ".interfaces.rest.dto");
     Map<String, String> typeMappings = new HashMap<String, String>();
     typeMappings.put("set", "List");
-    configurator.setTypeMappings(typeMappings);
     Map<String, String> instantiationTypes = new HashMap<String, String>();
     instantiationTypes.put("set", "ArrayList");
-    configurator.setInstantiationTypes(instantiationTypes);
     Map<String, String> importMappings = new HashMap<String, String>();
     instantiationTypes.put("LinkedHashSet", "java.util.ArrayList");
-    configurator.setImportMappings(importMappings);
+    GeneratorSettings generatorSettings = GeneratorSettings
+      .newBuilder()
+      .withGeneratorName(GENERATOR_NAME)
+      .withLibrary("spring-boot")
+      // .withTemplateDir(Path.of(new ClassPathResource("templates/api").getURI()).toString())
+      .withInvokerPackage(apiVo.packageName())
+      .withApiPackage(apiVo.packageName() + ".interfaces.rest")
+      .withModelPackage(apiVo.packageName() + ".interfaces.rest.dto")
+      .withAdditionalProperties(additionalProperties)
+      .withTypeMappings(typeMappings)
+      .withInstantiationTypes(instantiationTypes)
+      .withImportMappings(importMappings)
+      .build();
 
-    configurator.setOutputDir(
-      apiVo.projectTempPath().toFile().getAbsolutePath()
-    );
-
-    for (Map.Entry<
-      String,
-      String
-    > globalPropertiesEntry : globalProperties.entrySet()) {
-      String key = globalPropertiesEntry.getKey();
-      String value = globalPropertiesEntry.getValue();
-      if (value != null) {
-        configurator.addGlobalProperty(key, value);
-      }
-    }
+    // OpenAPI Generator 只能輸出到目錄，先寫到本機暫存目錄再收進 staging，暫存目錄只會有需要的檔案
+    Path outputDirectory = Files.createTempDirectory("openapi-");
 
-    ClientOptInput input = configurator.toClientOptInput();
+    ClientOptInput input = new ClientOptInput()
+      .config(codegenConfig(generatorSettings, specFile, outputDirectory))
+      .generatorSettings(generatorSettings)
+      .userDefinedTemplates(List.of())
+      .openAPI(openAPI);
     DefaultGenerator generator = new DefaultGenerator();
     generator.setGenerateMetadata(false);
-    generator.opts(input).generate();
-    // apiVo.projectTempPath().resolve("pom.xml").toFile().delete();
+    // 只產生 API 介面與 DTO，不產生 pom.xml、README.md 與未使用的 ApiUtil.java
+    generator.setGeneratorPropertyDefault(CodegenConstants.APIS, "true");
+    generator.setGeneratorPropertyDefault(CodegenConstants.MODELS, "true");
+    generator.setGeneratorPropertyDefault(
+      CodegenConstants.SUPPORTING_FILES,
+      "false"
+    );
+    try {
+      generator.opts(input).generate();
+      int count = apiVo
+        .sink()
+        .absorb(outputDirectory, Path.of("."), path -> true);
+      log.info("✅ OpenAPI 產生 {} 個檔案", count);
+    } finally {
+      StagingTree.deleteRecursively(outputDirectory);
+    }
+  }
+
+  /**
+   * 以 CodegenConfigurator 解析與驗證規格，錯誤訊息與直接以 openapi-generator 產生時相同
+   */
+  private static OpenAPI parse(File specFile) {
+    return (OpenAPI) new CodegenConfigurator()
+      .setGeneratorName(GENERATOR_NAME)
+      .setInputSpec(specFile.getAbsolutePath())
+      .toContext()
+      .getSpecDocument();
+  }
 
+  /**
+   * 與 CodegenConfigurator.toClientOptInput 相同的方式建立設定，但不解析規格，
+   * 模型改由呼叫端提供，快取命中時不需要讀取 YAML
+   */
+  private static CodegenConfig codegenConfig(
+    GeneratorSettings generatorSettings,
+    File specFile,
+    Path outputDirectory
+  ) {
+    CodegenConfig config = CodegenConfigLoader.forName(
+      generatorSettings.getGeneratorName()
+    );
+    config.setLibrary(generatorSettings.getLibrary());
+    config.setInputSpec(specFile.getAbsolutePath());
+    config.setOutputDir(outputDirectory.toFile().getAbsolutePath());
+    config.setTemplatingEngine(
+      TemplatingEngineLoader.byIdentifier(config.defaultTemplatingEngine())
+    );
+    config.instantiationTypes().putAll(generatorSettings.getInstantiationTypes());
+    config.typeMapping().putAll(generatorSettings.getTypeMappings());
+    config.importMapping().putAll(generatorSettings.getImportMappings());
+    config.additionalProperties().putAll(generatorSettings.getAdditionalProperties());
+    return config;
   }
 }
@@ -1,26 +1,24 @@
 package io.github.cloudtechnology.generator.service.impl;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.io.IOUtils;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
 
+import io.github.cloudtechnology.generator.jfr.TemplateEvent;
 import io.github.cloudtechnology.generator.jooq.SimpleRepositoryGenerator.TableMetadata;
 import io.github.cloudtechnology.generator.service.RepositoryGenerator;
+import io.github.cloudtechnology.generator.service.template.TemplateRegistry;
 import io.github.cloudtechnology.generator.vo.RepositoryVo;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -44,6 +42,8 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Service("springRepositoryGenerator")
+@Lazy
+@RequiredArgsConstructor
 public class SpringRepositoryGenerator implements RepositoryGenerator {
     
     // 常量定義
@@ -57,6 +57,11 @@ public class SpringRepositoryGenerator implements RepositoryGenerator {
     private static final String TEMPLATE_VAR_CLASS_NAME = "className";
     private static final String TEMPLATE_VAR_POJO_CLASS_NAME = "pojoClassName";
     private static final String TEMPLATE_VAR_PRIMARY_KEY_TYPE = "primaryKeyType";
+
+    /**
+     * Repository 模板只編譯一次，所有資料表與產生流程共用
+     */
+    private final TemplateRegistry templateRegistry;
     
     @Override
     public void generate(RepositoryVo repositoryVo) throws Exception {
@@ -99,22 +104,19 @@ public class SpringRepositoryGenerator implements RepositoryGenerator {
      * @throws IOException 檔案讀取異常
      */
     private List<TableMetadata> loadTableMetadata(RepositoryVo repositoryVo) throws IOException {
-        // 構建元數據文件路徑
-        Path metadataFilePath = repositoryVo.projectTempPath()
-                                          .resolve("src/main/java")
-                                          .resolve(METADATA_FILE_NAME);
+        // 構建元數據文件路徑 (位於 staging 中，尚未寫入磁碟)
+        Path metadataFilePath = Path.of("src", "main", "java", METADATA_FILE_NAME);
         
-        log.info("🔍 讀取表元數據文件: {}", metadataFilePath.toAbsolutePath());
+        log.info("🔍 讀取表元數據文件: {}", metadataFilePath);
         
-        if (!Files.exists(metadataFilePath)) {
-            log.warn("⚠️ 表元數據文件不存在: {}", metadataFilePath);
-            throw new IOException("找不到表元數據文件: " + metadataFilePath);
-        }
+        byte[] jsonContent = repositoryVo.sink()
+                                      .read(metadataFilePath)
+                                      .orElseThrow(() -> {
+                                          log.warn("⚠️ 表元數據文件不存在: {}", metadataFilePath);
+                                          return new IOException("找不到表元數據文件: " + metadataFilePath);
+                                      });
         
         try {
-            // 讀取 JSON 文件內容
-            String jsonContent = Files.readString(metadataFilePath, StandardCharsets.UTF_8);
-            
             // 解析為 TableMetadata 對象列表
             ObjectMapper objectMapper = new ObjectMapper();
             List<TableMetadata> tableMetadataList = objectMapper.readValue(
@@ -151,11 +153,19 @@ public class SpringRepositoryGenerator implements RepositoryGenerator {
         RepositoryInfo repositoryInfo = buildRepositoryInfo(repositoryVo, metadata);
         Map<String, Object> templateVariables = createTemplateVariables(repositoryInfo, metadata);
         
-        // 生成 Repository 內容
+        // 生成 Repository 內容，每次渲染記錄一筆 JFR TemplateEvent
+        TemplateEvent event = new TemplateEvent();
+        event.begin();
         String repositoryContent = generateRepositoryContent(templateVariables);
         
         // 寫入 Repository 檔案
         writeRepositoryFile(repositoryVo, repositoryInfo, repositoryContent);
+        if (event.shouldCommit()) {
+            event.template = REPOSITORY_TEMPLATE_PATH;
+            event.output = repositoryInfo.getPackageName() + "." + repositoryInfo.getClassName();
+            event.bytes = repositoryContent.getBytes(StandardCharsets.UTF_8).length;
+            event.commit();
+        }
         
         log.debug("✅ Repository 檔案生成完成: {}", repositoryInfo.getClassName());
     }
@@ -207,25 +217,7 @@ public class SpringRepositoryGenerator implements RepositoryGenerator {
      * @throws IOException 模板處理異常
      */
     private String generateRepositoryContent(Map<String, Object> templateVariables) throws IOException {
-        String templateContent = loadTemplateContent(REPOSITORY_TEMPLATE_PATH);
-        Template template = Mustache.compiler().compile(templateContent);
-        return template.execute(templateVariables);
-    }
-    
-    /**
-     * 載入模板檔案內容
-     * 
-     * @param templatePath 模板檔案路徑
-     * @return 模板內容字串
-     * @throws IOException 檔案讀取異常
-     */
-    private String loadTemplateContent(String templatePath) throws IOException {
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(templatePath)) {
-            if (inputStream == null) {
-                throw new IOException("找不到模板檔案: " + templatePath);
-            }
-            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-        }
+        return templateRegistry.render(REPOSITORY_TEMPLATE_PATH, templateVariables);
     }
     
     /**
@@ -234,43 +226,20 @@ public class SpringRepositoryGenerator implements RepositoryGenerator {
      * @param repositoryVo   Repository 配置信息
      * @param repositoryInfo Repository 信息
      * @param content        Repository 檔案內容
-     * @throws IOException 檔案寫入異常
      */
     private void writeRepositoryFile(RepositoryVo repositoryVo, RepositoryInfo repositoryInfo, 
-                                   String content) throws IOException {
+                                   String content) {
         // 構建檔案路徑
         String packagePath = repositoryInfo.getPackageName().replace('.', '/');
-        Path repositoryDir = repositoryVo.projectTempPath()
-                                       .resolve("src/main/java")
-                                       .resolve(packagePath);
-        Path repositoryFilePath = repositoryDir.resolve(repositoryInfo.getClassName() + ".java");
+        Path repositoryFilePath = Path.of("src", "main", "java")
+                                      .resolve(packagePath)
+                                      .resolve(repositoryInfo.getClassName() + ".java");
         
-        log.debug("📂 Repository 檔案路徑: {}", repositoryFilePath.toAbsolutePath());
+        // 寫入 staging，由 ProjectService 在所有階段完成後統一寫入磁碟
+        repositoryVo.sink().writeString(repositoryFilePath, content);
         
-        // 確保目錄存在
-        if (!Files.exists(repositoryDir)) {
-            log.debug("📁 創建目錄: {}", repositoryDir);
-            Files.createDirectories(repositoryDir);
-        }
-        
-        // 寫入檔案
-        Files.writeString(
-            repositoryFilePath,
-            content,
-            StandardCharsets.UTF_8,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING,
-            StandardOpenOption.WRITE
-        );
-        
-        // 驗證檔案是否成功寫入
-        if (Files.exists(repositoryFilePath)) {
-            long fileSize = Files.size(repositoryFilePath);
-            log.debug("📝 Repository 檔案已寫入: {} ({} bytes)", 
-                     repositoryFilePath.toAbsolutePath(), fileSize);
-        } else {
-            throw new IOException("Repository 檔案寫入失敗: " + repositoryFilePath);
-        }
+        log.debug("📝 Repository 檔案已寫入 staging: {} ({} 字符)", 
+                 repositoryFilePath, content.length());
     }
     
     /**
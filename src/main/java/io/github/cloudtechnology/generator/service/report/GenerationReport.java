@@ -0,0 +1,412 @@
+package io.github.cloudtechnology.generator.service.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import io.github.cloudtechnology.generator.jfr.PhaseEvent;
+import io.github.cloudtechnology.generator.service.scheduler.GenerationPhase;
+import io.github.cloudtechnology.generator.service.staging.GenerationManifest;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
+import io.github.cloudtechnology.generator.vo.GenerationReportVo;
+import io.github.cloudtechnology.generator.vo.PhaseReportVo;
+import io.github.cloudtechnology.generator.vo.ProcessReportVo;
+import io.github.cloudtechnology.generator.vo.SchemaSnapshotVo;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 記錄單次產生流程各階段的耗用資源，並為每個階段送出 JFR PhaseEvent
+ *
+ * CPU 時間與配置的記憶體以執行階段的執行緒計算，階段必須在平台執行緒上執行，
+ * 虛擬執行緒無法量測，會記為 -1。步驟交給其他執行緒的工作以 attributed 包裝，
+ * 耗用的資源一併計入該步驟
+ */
+public class GenerationReport {
+
+  /**
+   * 將 staging 寫入磁碟或串流成壓縮檔的步驟
+   */
+  public static final String WRITE = "WRITE";
+
+  /**
+   * 計算快取鍵並查詢快取的步驟，命中時包含還原檔案的時間
+   */
+  public static final String CACHE = "CACHE";
+
+  /**
+   * 目前執行緒正在量測的步驟
+   */
+  private static final ThreadLocal<Measurement> CURRENT = new ThreadLocal<>();
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+    .enable(SerializationFeature.INDENT_OUTPUT);
+
+  private final String project;
+  private final StagingTree staging;
+  private final GenerationManifest manifest;
+  private final long start = System.nanoTime();
+  private final long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+  private final AtomicInteger sequence = new AtomicInteger();
+  private final Map<String, Measurement> measurements = new ConcurrentHashMap<>();
+  private volatile String schemaFingerprint;
+
+  /**
+   * @param project  專案名稱
+   * @param staging  本次產生的檔案樹，用來計算各階段輸出的檔案
+   * @param manifest 本次產生的紀錄，用來判斷階段是否略過
+   */
+  public GenerationReport(
+    String project,
+    StagingTree staging,
+    GenerationManifest manifest
+  ) {
+    this.project = project;
+    this.staging = staging;
+    this.manifest = manifest;
+  }
+
+  /**
+   * 包裝階段的工作，執行時記錄耗用資源
+   */
+  public GenerationPhase instrument(GenerationPhase phase) {
+    return new GenerationPhase(
+      phase.phase(),
+      phase.dependsOn(),
+      () -> this.measure(phase.phase().getValue(), phase.phase(), phase.task())
+    );
+  }
+
+  /**
+   * 記錄將檔案樹寫入磁碟或串流成壓縮檔的步驟，輸出量為寫入前檔案樹中的所有檔案
+   */
+  public void measureWrite(GenerationPhase.PhaseTask task) throws Exception {
+    this.measure(WRITE, null, task);
+  }
+
+  /**
+   * 記錄查詢快取的步驟
+   */
+  public void measureCache(GenerationPhase.PhaseTask task) throws Exception {
+    this.measure(CACHE, null, task);
+  }
+
+  /**
+   * 以實際輸出的檔案取代步驟開始時量測的檔案數與大小，例如從快取還原的檔案
+   */
+  public void recordOutput(String name, int files, long bytes) {
+    Measurement measurement = measurements.get(name);
+    measurement.files = files;
+    measurement.bytes = bytes;
+  }
+
+  /**
+   * 記錄本次讀取的 schema 快照，--watch 以此作為之後比對的基準，不必另外查詢
+   */
+  public void recordSchema(SchemaSnapshotVo schemaSnapshot) {
+    this.schemaFingerprint =
+      schemaSnapshot == null ? null : schemaSnapshot.fingerprint();
+  }
+
+  /**
+   * 包裝要交給其他平台執行緒的工作，工作耗用的 CPU 時間與配置的記憶體計入呼叫端目前量測中的步驟；
+   * 呼叫端不在量測中時原樣回傳
+   */
+  public static <T> Callable<T> attributed(Callable<T> task) {
+    Measurement measurement = CURRENT.get();
+    if (measurement == null) {
+      return task;
+    }
+    return () -> {
+      long cpuStart = cpuTime();
+      long allocatedStart = allocatedBytes();
+      try {
+        return task.call();
+      } finally {
+        measurement.addWorker(
+          difference(cpuStart, cpuTime()),
+          difference(allocatedStart, allocatedBytes())
+        );
+      }
+    };
+  }
+
+  private void measure(
+    String name,
+    PhaseEnum phase,
+    GenerationPhase.PhaseTask task
+  ) throws Exception {
+    Measurement measurement = new Measurement(sequence.getAndIncrement());
+    measurements.put(name, measurement);
+    if (phase == null) {
+      measurement.files = staging.size();
+      measurement.bytes = staging.totalBytes();
+    }
+    PhaseEvent event = new PhaseEvent();
+    event.begin();
+    long wallStart = System.nanoTime();
+    long cpuStart = cpuTime();
+    long allocatedStart = allocatedBytes();
+    // 階段在共用的執行緒池上執行，結束後還原
+    Measurement outer = CURRENT.get();
+    CURRENT.set(measurement);
+    try {
+      task.run();
+    } finally {
+      CURRENT.set(outer);
+      measurement.wallNanos = System.nanoTime() - wallStart;
+      measurement.cpuNanos = sum(
+        new long[] { difference(cpuStart, cpuTime()), measurement.workerCpuNanos() }
+      );
+      measurement.allocatedBytes = sum(
+        new long[] {
+          difference(allocatedStart, allocatedBytes()),
+          measurement.workerAllocatedBytes(),
+        }
+      );
+      if (phase != null) {
+        measurement.skipped = manifest.isSkipped(phase);
+        measurement.files = staging.size(phase);
+        measurement.bytes = staging.totalBytes(phase);
+      }
+      if (event.shouldCommit()) {
+        event.project = project;
+        event.phase = name;
+        event.skipped = measurement.skipped;
+        event.files = measurement.files;
+        event.bytes = measurement.bytes;
+        event.commit();
+      }
+    }
+  }
+
+  public GenerationReportVo build() {
+    List<PhaseReportVo> phases = measurements
+      .entrySet()
+      .stream()
+      .sorted(Comparator.comparingInt(entry -> entry.getValue().sequence))
+      .map(entry -> entry.getValue().toVo(entry.getKey()))
+      .toList();
+    // 從快取還原時沒有 WRITE 步驟，輸出量為還原的檔案
+    PhaseReportVo write = phases
+      .stream()
+      .filter(phase -> WRITE.equals(phase.phase()))
+      .findFirst()
+      .or(() ->
+        phases.stream().filter(phase -> CACHE.equals(phase.phase())).findFirst()
+      )
+      .orElse(null);
+    return new GenerationReportVo(
+      project,
+      GenerationManifest.version(),
+      (System.nanoTime() - start) / 1_000_000,
+      sum(phases.stream().mapToLong(PhaseReportVo::cpuMillis).toArray()),
+      sum(phases.stream().mapToLong(PhaseReportVo::allocatedBytes).toArray()),
+      write == null ? 0 : write.files(),
+      write == null ? 0 : write.bytes(),
+      schemaFingerprint,
+      phases,
+      new ProcessReportVo(startupMillis, processCpuMillis(), peakRssBytes())
+    );
+  }
+
+  /**
+   * 以對齊的表格呈現報告
+   */
+  public static String toTable(GenerationReportVo report) {
+    StringBuilder builder = new StringBuilder();
+    String format = "%-18s %10s %10s %12s %7s %12s%n";
+    builder.append(
+      String.format(
+        format,
+        "phase",
+        "wall ms",
+        "cpu ms",
+        "alloc KB",
+        "files",
+        "bytes"
+      )
+    );
+    for (PhaseReportVo phase : report.phases()) {
+      builder.append(
+        String.format(
+          format,
+          phase.skipped() ? phase.phase() + " (skip)" : phase.phase(),
+          phase.wallMillis(),
+          orDash(phase.cpuMillis()),
+          orDash(kilobytes(phase.allocatedBytes())),
+          phase.files(),
+          phase.bytes()
+        )
+      );
+    }
+    builder.append(
+      String.format(
+        format,
+        "total",
+        report.wallMillis(),
+        orDash(report.cpuMillis()),
+        orDash(kilobytes(report.allocatedBytes())),
+        report.files(),
+        report.bytes()
+      )
+    );
+    builder.append(
+      String.format(
+        "process: startup %d ms, cpu %s ms, peak RSS %s KB%n",
+        report.process().startupMillis(),
+        orDash(report.process().cpuMillis()),
+        orDash(kilobytes(report.process().peakRssBytes()))
+      )
+    );
+    return builder.toString();
+  }
+
+  /**
+   * 將報告輸出為 JSON
+   *
+   * @param report 單一專案的報告，或批次產生時的報告清單
+   * @param target 輸出檔案路徑，- 表示 System.out
+   */
+  public static void writeJson(Object report, String target)
+    throws IOException {
+    if ("-".equals(target)) {
+      // 壓縮檔寫到 stdout 時 System.out 已導向 stderr，不會混入壓縮檔
+      System.out.println(OBJECT_MAPPER.writeValueAsString(report));
+      return;
+    }
+    Path reportFile = Path.of(target);
+    if (reportFile.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(reportFile.toAbsolutePath().getParent());
+    }
+    OBJECT_MAPPER.writeValue(reportFile.toFile(), report);
+  }
+
+  private static long cpuTime() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    return threadMXBean.isCurrentThreadCpuTimeSupported()
+      ? threadMXBean.getCurrentThreadCpuTime()
+      : -1;
+  }
+
+  private static long allocatedBytes() {
+    if (
+      ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean &&
+      threadMXBean.isThreadAllocatedMemorySupported()
+    ) {
+      return threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+    return -1;
+  }
+
+  private static long processCpuMillis() {
+    return ProcessHandle.current()
+      .info()
+      .totalCpuDuration()
+      .map(Duration::toMillis)
+      .orElse(-1L);
+  }
+
+  /**
+   * 只有 Linux 提供行程的最大常駐記憶體，其他平台記為 -1
+   */
+  private static long peakRssBytes() {
+    Path status = Path.of("/proc/self/status");
+    if (!Files.isReadable(status)) {
+      return -1;
+    }
+    try {
+      return Files.readAllLines(status)
+        .stream()
+        .filter(line -> line.startsWith("VmHWM:"))
+        .findFirst()
+        .map(line -> Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024)
+        .orElse(-1L);
+    } catch (IOException | NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static long difference(long before, long after) {
+    return before < 0 || after < 0 ? -1 : after - before;
+  }
+
+  /**
+   * 任一階段無法量測時總和也記為 -1
+   */
+  private static long sum(long[] values) {
+    long total = 0;
+    for (long value : values) {
+      if (value < 0) {
+        return -1;
+      }
+      total += value;
+    }
+    return total;
+  }
+
+  private static long kilobytes(long bytes) {
+    return bytes < 0 ? -1 : bytes / 1024;
+  }
+
+  private static String orDash(long value) {
+    return value < 0 ? "-" : String.valueOf(value);
+  }
+
+  private static class Measurement {
+
+    private final int sequence;
+    private volatile long wallNanos;
+    private volatile long cpuNanos = -1;
+    private volatile long allocatedBytes = -1;
+    private volatile boolean skipped;
+    private volatile int files;
+    private volatile long bytes;
+    private final LongAdder workerCpuNanos = new LongAdder();
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+    private volatile boolean workerUnmeasured;
+
+    private Measurement(int sequence) {
+      this.sequence = sequence;
+    }
+
+    private void addWorker(long cpuNanos, long allocatedBytes) {
+      if (cpuNanos < 0 || allocatedBytes < 0) {
+        workerUnmeasured = true;
+        return;
+      }
+      workerCpuNanos.add(cpuNanos);
+      workerAllocatedBytes.add(allocatedBytes);
+    }
+
+    private long workerCpuNanos() {
+      return workerUnmeasured ? -1 : workerCpuNanos.sum();
+    }
+
+    private long workerAllocatedBytes() {
+      return workerUnmeasured ? -1 : workerAllocatedBytes.sum();
+    }
+
+    private PhaseReportVo toVo(String phase) {
+      return new PhaseReportVo(
+        phase,
+        skipped,
+        wallNanos / 1_000_000,
+        cpuNanos < 0 ? -1 : cpuNanos / 1_000_000,
+        allocatedBytes,
+        files,
+        bytes
+      );
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package io.github.cloudtechnology.generator.service.scheduler;
+
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import java.util.Set;
+
+/**
+ * 產生流程中的單一階段，宣告其相依的前置階段
+ *
+ * @param phase     階段名稱
+ * @param dependsOn 必須先完成的階段
+ * @param task      階段實際執行的工作
+ */
+public record GenerationPhase(
+  PhaseEnum phase,
+  Set<PhaseEnum> dependsOn,
+  PhaseTask task
+) {
+  public GenerationPhase {
+    dependsOn = Set.copyOf(dependsOn);
+  }
+
+  public static GenerationPhase of(
+    PhaseEnum phase,
+    PhaseTask task,
+    PhaseEnum... dependsOn
+  ) {
+    return new GenerationPhase(phase, Set.of(dependsOn), task);
+  }
+
+  @FunctionalInterface
+  public interface PhaseTask {
+    void run() throws Exception;
+  }
+}
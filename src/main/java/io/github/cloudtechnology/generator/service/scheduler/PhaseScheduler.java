@@ -0,0 +1,149 @@
+package io.github.cloudtechnology.generator.service.scheduler;
+
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 依照階段間的相依關係排程執行產生流程
+ * 沒有相依關係的階段會同時在執行緒池中執行，整體耗時約等於最慢的相依鏈
+ */
+@Slf4j
+@Component
+public class PhaseScheduler {
+
+  private final ExecutorService executor;
+
+  public PhaseScheduler(
+    @Qualifier("generatorTaskExecutor") ExecutorService executor
+  ) {
+    this.executor = executor;
+  }
+
+  /**
+   * 執行所有階段，等待全部結束後才返回
+   * 任一階段失敗時，相依於它的階段不會執行，並拋出第一個失敗的例外
+   *
+   * @param phases 要執行的階段
+   * @throws Exception 任一階段執行失敗
+   */
+  public void run(List<GenerationPhase> phases) throws Exception {
+    Map<PhaseEnum, CompletableFuture<Void>> futures = new EnumMap<>(
+      PhaseEnum.class
+    );
+    for (GenerationPhase phase : this.sort(phases)) {
+      CompletableFuture<?>[] dependencies = phase
+        .dependsOn()
+        .stream()
+        .map(futures::get)
+        .toArray(CompletableFuture[]::new);
+      futures.put(
+        phase.phase(),
+        CompletableFuture
+          .allOf(dependencies)
+          .thenRunAsync(() -> this.execute(phase), executor)
+      );
+    }
+
+    Exception failure = null;
+    for (CompletableFuture<Void> future : futures.values()) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        Exception cause = this.unwrap(e);
+        if (failure == null) {
+          failure = cause;
+        } else if (failure != cause) {
+          failure.addSuppressed(cause);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void execute(GenerationPhase phase) {
+    log.info("▶️ 開始執行階段: {}", phase.phase());
+    long start = System.nanoTime();
+    try {
+      phase.task().run();
+    } catch (Exception e) {
+      log.error("❌ 階段 {} 執行失敗", phase.phase());
+      throw new CompletionException(e);
+    }
+    log.info(
+      "✅ 階段 {} 完成，耗時 {} ms",
+      phase.phase(),
+      (System.nanoTime() - start) / 1_000_000
+    );
+  }
+
+  /**
+   * 依相依關係做拓撲排序，並檢查未知的相依與循環相依
+   */
+  private List<GenerationPhase> sort(List<GenerationPhase> phases) {
+    Map<PhaseEnum, GenerationPhase> byName = new EnumMap<>(PhaseEnum.class);
+    for (GenerationPhase phase : phases) {
+      if (byName.put(phase.phase(), phase) != null) {
+        throw new IllegalArgumentException(
+          "Duplicate phase: " + phase.phase()
+        );
+      }
+    }
+    Map<PhaseEnum, Integer> pending = new EnumMap<>(PhaseEnum.class);
+    for (GenerationPhase phase : phases) {
+      for (PhaseEnum dependency : phase.dependsOn()) {
+        if (!byName.containsKey(dependency)) {
+          throw new IllegalArgumentException(
+            "Phase " + phase.phase() + " depends on missing phase " + dependency
+          );
+        }
+      }
+      pending.put(phase.phase(), phase.dependsOn().size());
+    }
+
+    Deque<GenerationPhase> ready = new ArrayDeque<>();
+    phases
+      .stream()
+      .filter(phase -> phase.dependsOn().isEmpty())
+      .forEach(ready::add);
+    List<GenerationPhase> sorted = new ArrayList<>();
+    while (!ready.isEmpty()) {
+      GenerationPhase current = ready.poll();
+      sorted.add(current);
+      for (GenerationPhase phase : phases) {
+        if (
+          phase.dependsOn().contains(current.phase()) &&
+          pending.merge(phase.phase(), -1, Integer::sum) == 0
+        ) {
+          ready.add(phase);
+        }
+      }
+    }
+    if (sorted.size() != phases.size()) {
+      throw new IllegalArgumentException("Cyclic phase dependencies");
+    }
+    return sorted;
+  }
+
+  private Exception unwrap(Throwable throwable) {
+    Throwable cause = throwable;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause instanceof Exception exception
+      ? exception
+      : new IllegalStateException(cause);
+  }
+}
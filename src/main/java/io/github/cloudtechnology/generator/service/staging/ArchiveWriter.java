@@ -0,0 +1,138 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * 將 staging 檔案樹直接串流成 zip 或 tar，不經過磁碟上的目錄
+ *
+ * tar 路徑或大小超過 ustar 限制時改用 pax 延伸標頭
+ * https://pubs.opengroup.org/onlinepubs/9699919799/utilities/pax.html#tag_20_92_13_06
+ *
+ * zip 的檔案權限記錄在 central directory 的 external attributes (高 16 bits 為 unix mode)，
+ * java.util.zip 無法設定，改用 commons-compress，解壓後 gradlew 才能直接執行
+ */
+final class ArchiveWriter {
+
+  private static final int FILE_MODE = 0644;
+  private static final int EXECUTABLE_MODE = 0755;
+  /**
+   * zip 的 unix mode 需包含檔案類型 (S_IFREG)
+   */
+  private static final int REGULAR_FILE_TYPE = 0100000;
+
+  private ArchiveWriter() {}
+
+  /**
+   * @param files         依路徑排序的檔案
+   * @param rootDirectory 壓縮檔內的根目錄名稱
+   * @param outputStream  輸出串流，寫完後不會關閉
+   */
+  static void write(
+    ArchiveFormatEnum format,
+    Map<String, StagingTree.StagedFile> files,
+    String rootDirectory,
+    OutputStream outputStream
+  ) throws IOException {
+    long modifiedTime = System.currentTimeMillis();
+    switch (format) {
+      case ZIP -> writeZip(files, rootDirectory, outputStream, modifiedTime);
+      case TAR -> writeTar(files, rootDirectory, outputStream, modifiedTime);
+      default -> throw new IllegalArgumentException(
+        "Invalid archive format: " + format
+      );
+    }
+  }
+
+  private static void writeZip(
+    Map<String, StagingTree.StagedFile> files,
+    String rootDirectory,
+    OutputStream outputStream,
+    long modifiedTime
+  ) throws IOException {
+    // 輸出串流由呼叫端負責關閉，close 只結束 zip 並釋放 Deflater
+    try (
+      ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(
+        new CloseShieldOutputStream(outputStream)
+      )
+    ) {
+      for (Map.Entry<String, StagingTree.StagedFile> entry : files.entrySet()) {
+        ZipArchiveEntry zipEntry = new ZipArchiveEntry(
+          rootDirectory + "/" + entry.getKey()
+        );
+        zipEntry.setLastModifiedTime(FileTime.fromMillis(modifiedTime));
+        zipEntry.setUnixMode(
+          REGULAR_FILE_TYPE |
+          (entry.getValue().executable() ? EXECUTABLE_MODE : FILE_MODE)
+        );
+        zipOutputStream.putArchiveEntry(zipEntry);
+        zipOutputStream.write(entry.getValue().content());
+        zipOutputStream.closeArchiveEntry();
+      }
+    }
+    outputStream.flush();
+  }
+
+  private static void writeTar(
+    Map<String, StagingTree.StagedFile> files,
+    String rootDirectory,
+    OutputStream outputStream,
+    long modifiedTime
+  ) throws IOException {
+    // 輸出串流由呼叫端負責關閉，close 只寫入結尾區塊
+    try (
+      TarArchiveOutputStream tarOutputStream = new TarArchiveOutputStream(
+        new CloseShieldOutputStream(outputStream),
+        StandardCharsets.UTF_8.name()
+      )
+    ) {
+      tarOutputStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      tarOutputStream.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+      for (Map.Entry<String, StagingTree.StagedFile> entry : files.entrySet()) {
+        byte[] content = entry.getValue().content();
+        TarArchiveEntry tarEntry = new TarArchiveEntry(
+          rootDirectory + "/" + entry.getKey()
+        );
+        tarEntry.setModTime(modifiedTime);
+        tarEntry.setMode(
+          entry.getValue().executable() ? EXECUTABLE_MODE : FILE_MODE
+        );
+        tarEntry.setSize(content.length);
+        tarOutputStream.putArchiveEntry(tarEntry);
+        tarOutputStream.write(content);
+        tarOutputStream.closeArchiveEntry();
+      }
+    }
+    outputStream.flush();
+  }
+
+  /**
+   * 關閉時只 flush，不關閉被包裝的串流
+   */
+  private static final class CloseShieldOutputStream
+    extends FilterOutputStream {
+
+    private CloseShieldOutputStream(OutputStream outputStream) {
+      super(outputStream);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      this.out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.flush();
+    }
+  }
+}
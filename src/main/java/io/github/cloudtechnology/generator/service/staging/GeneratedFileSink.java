@@ -0,0 +1,56 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * 所有產生器 (ProjectGenerator、ApiGenerator、RepositoryGenerator、SchemaVersioning)
+ * 輸出檔案的唯一入口
+ *
+ * 路徑皆為專案相對路徑；同一路徑重複寫入時只保留最後一次的內容，
+ * 實際寫入磁碟時才建立目錄並略過內容未變動的檔案
+ */
+public interface GeneratedFileSink {
+  default void writeString(Path relativePath, String content) {
+    this.write(relativePath, content.getBytes(StandardCharsets.UTF_8), false);
+  }
+
+  default void write(Path relativePath, byte[] content) {
+    this.write(relativePath, content, false);
+  }
+
+  default void write(Path relativePath, byte[] content, boolean executable) {
+    this.write(relativePath, content, executable, null);
+  }
+
+  /**
+   * @param source 寫入全新目錄時取代 content 的磁碟來源，內容必須與 content 相同
+   */
+  void write(
+    Path relativePath,
+    byte[] content,
+    boolean executable,
+    StagedSource source
+  );
+
+  Optional<byte[]> read(Path relativePath);
+
+  boolean delete(Path relativePath);
+
+  /**
+   * 將第三方工具 (JOOQ、OpenAPI Generator) 輸出到暫存目錄的檔案收進來
+   *
+   * @param sourceDirectory 第三方工具的輸出目錄
+   * @param targetDirectory 在專案中的相對目錄
+   * @param filter          以 sourceDirectory 為基準的相對路徑過濾條件
+   * @return 收進的檔案數
+   */
+  int absorb(
+    Path sourceDirectory,
+    Path targetDirectory,
+    Predicate<Path> filter
+  ) throws IOException;
+}
@@ -0,0 +1,223 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import io.github.cloudtechnology.generator.vo.ManifestVo;
+import io.github.cloudtechnology.generator.vo.PhaseManifestVo;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 單次產生流程的增量狀態
+ *
+ * 讀取上次產生時留下的 manifest，判斷哪些階段的輸入沒有改變可以略過，
+ * 並在 commit 時依輸出檔案雜湊決定哪些檔案不需要重寫
+ */
+@Slf4j
+public class GenerationManifest {
+
+  public static final Path MANIFEST_PATH = Path.of(".generator", "manifest.json");
+
+  /**
+   * 無法確認輸入是否改變時記錄的輸入雜湊，下次產生時不會視為相同
+   */
+  public static final String UNKNOWN_INPUT = "";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+    .enable(SerializationFeature.INDENT_OUTPUT)
+    .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+  private final Path projectDirectory;
+  private final ManifestVo previous;
+  private final Map<PhaseEnum, String> inputHashes = new ConcurrentHashMap<>();
+  private final Set<PhaseEnum> skippedPhases = ConcurrentHashMap.newKeySet();
+
+  private GenerationManifest(Path projectDirectory, ManifestVo previous) {
+    this.projectDirectory = projectDirectory;
+    this.previous = previous;
+  }
+
+  /**
+   * 沒有上次產生的紀錄，所有階段都會執行
+   */
+  public static GenerationManifest empty() {
+    return new GenerationManifest(null, new ManifestVo(null, Map.of()));
+  }
+
+  /**
+   * 讀取專案目錄中的 manifest，專案或 manifest 不存在時視為全新產生
+   */
+  public static GenerationManifest load(Path projectDirectory)
+    throws IOException {
+    Path manifestFile = projectDirectory.resolve(MANIFEST_PATH);
+    if (!Files.isRegularFile(manifestFile)) {
+      return new GenerationManifest(
+        projectDirectory,
+        new ManifestVo(null, Map.of())
+      );
+    }
+    ManifestVo manifestVo = OBJECT_MAPPER.readValue(
+      manifestFile.toFile(),
+      ManifestVo.class
+    );
+    log.info(
+      "📒 讀取 manifest: {} (generator {})",
+      manifestFile,
+      manifestVo.generatorVersion()
+    );
+    return new GenerationManifest(projectDirectory, manifestVo);
+  }
+
+  /**
+   * 判斷階段的輸入是否與上次相同，且上次輸出的檔案都還在磁碟上
+   */
+  public boolean isUpToDate(PhaseEnum phase, String inputHash) {
+    PhaseManifestVo phaseManifest = this.previousPhase(phase);
+    if (
+      projectDirectory == null ||
+      phaseManifest == null ||
+      !GenerationManifest.version().equals(previous.generatorVersion()) ||
+      UNKNOWN_INPUT.equals(inputHash) ||
+      !inputHash.equals(phaseManifest.inputHash())
+    ) {
+      return false;
+    }
+    return phaseManifest
+      .files()
+      .keySet()
+      .stream()
+      .allMatch(file -> Files.isRegularFile(projectDirectory.resolve(file)));
+  }
+
+  public void recordInput(PhaseEnum phase, String inputHash) {
+    inputHashes.put(phase, inputHash);
+  }
+
+  public void markSkipped(PhaseEnum phase) {
+    skippedPhases.add(phase);
+  }
+
+  public boolean isSkipped(PhaseEnum phase) {
+    return skippedPhases.contains(phase);
+  }
+
+  /**
+   * 上次產生時記錄的檔案雜湊，不分階段
+   */
+  public String previousHash(String file) {
+    for (PhaseManifestVo phaseManifest : previous.phases().values()) {
+      String hash = phaseManifest.files().get(file);
+      if (hash != null) {
+        return hash;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 本次有重新執行的階段上次輸出的檔案，用來找出已不再產生的舊檔案；
+   * 上次有但本次沒有執行的階段 (例如不再提供規格或資料庫) 視為執行後沒有輸出
+   */
+  public Set<String> previousFilesOfExecutedPhases() {
+    Set<String> files = new TreeSet<>();
+    previous
+      .phases()
+      .forEach((phase, phaseManifest) -> {
+        if (!this.isRetained(phase)) {
+          files.addAll(phaseManifest.files().keySet());
+        }
+      });
+    return files;
+  }
+
+  /**
+   * 組出本次的 manifest，略過的階段沿用上次的輸出紀錄
+   *
+   * @param writtenFiles 本次各階段輸出的檔案雜湊
+   */
+  public byte[] next(Map<PhaseEnum, Map<String, String>> writtenFiles)
+    throws IOException {
+    Map<String, PhaseManifestVo> phases = new TreeMap<>(previous.phases());
+    // 本次沒有執行的階段的檔案已刪除，不再記錄
+    phases.keySet().removeIf(phase -> !this.isRecorded(phase));
+    inputHashes.forEach((phase, inputHash) -> {
+      if (skippedPhases.contains(phase)) {
+        return;
+      }
+      phases.put(
+        phase.getValue(),
+        new PhaseManifestVo(
+          inputHash,
+          new TreeMap<>(writtenFiles.getOrDefault(phase, Map.of()))
+        )
+      );
+    });
+    return OBJECT_MAPPER.writeValueAsBytes(
+      new ManifestVo(GenerationManifest.version(), phases)
+    );
+  }
+
+  /**
+   * 只有本次略過的階段，上次輸出的檔案仍然有效
+   */
+  private boolean isRetained(String phase) {
+    return skippedPhases
+      .stream()
+      .anyMatch(skipped -> skipped.getValue().equals(phase));
+  }
+
+  private boolean isRecorded(String phase) {
+    return inputHashes
+      .keySet()
+      .stream()
+      .anyMatch(recorded -> recorded.getValue().equals(phase));
+  }
+
+  private PhaseManifestVo previousPhase(PhaseEnum phase) {
+    return previous.phases().get(phase.getValue());
+  }
+
+  /**
+   * generator 版本也是輸入的一部分，升級後所有階段都會重新產生
+   */
+  public static String version() {
+    return Objects.requireNonNullElse(
+      GenerationManifest.class.getPackage().getImplementationVersion(),
+      "dev"
+    );
+  }
+
+  public static String sha256(byte[] content) {
+    try {
+      return HexFormat
+        .of()
+        .formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * 將多個輸入組合成一個雜湊，null 視為空字串
+   */
+  public static String hash(Object... parts) {
+    StringBuilder builder = new StringBuilder();
+    for (Object part : parts) {
+      builder.append(Objects.toString(part, "")).append('\u0000');
+    }
+    return sha256(builder.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
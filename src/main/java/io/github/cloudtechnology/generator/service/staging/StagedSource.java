@@ -0,0 +1,16 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 檔案內容在磁碟上已有來源時，寫入全新目錄可以直接由來源複製或建立 hard link，
+ * 不必從記憶體重新寫出；可執行檔需要另外設定權限，不使用來源
+ */
+@FunctionalInterface
+public interface StagedSource {
+  /**
+   * @param file 尚不存在的目標檔案
+   */
+  void writeTo(Path file) throws IOException;
+}
@@ -0,0 +1,522 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import io.github.cloudtechnology.generator.service.report.GenerationReport;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 產生流程的記憶體暫存檔案樹
+ *
+ * 各階段的產生器只寫入這裡，全部階段成功後才由 commit 依路徑排序一次寫入磁碟，
+ * 失敗時直接 discard，不會在輸出目錄留下寫到一半的專案。
+ * 可同時被多個階段寫入。
+ */
+@Slf4j
+public class StagingTree implements GeneratedFileSink {
+
+  /**
+   * 寫入全新目錄時同時寫入的執行緒數，也是同時開啟的檔案數上限，避免大型專案耗盡 file descriptor
+   */
+  private static final int PARALLEL_WRITES = 32;
+
+  /**
+   * key 為使用 / 分隔的專案相對路徑，依字典順序排列以便依目錄批次寫入
+   */
+  private final NavigableMap<String, StagedFile> files;
+
+  /**
+   * 透過此檔案樹寫入的檔案歸屬的階段，用於記錄 manifest
+   */
+  private final PhaseEnum phase;
+
+  /**
+   * 所有階段共用的合併寫入次數
+   */
+  private final AtomicInteger coalescedWrites;
+
+  public StagingTree() {
+    this(new ConcurrentSkipListMap<>(), null, new AtomicInteger());
+  }
+
+  private StagingTree(
+    NavigableMap<String, StagedFile> files,
+    PhaseEnum phase,
+    AtomicInteger coalescedWrites
+  ) {
+    this.files = files;
+    this.phase = phase;
+    this.coalescedWrites = coalescedWrites;
+  }
+
+  /**
+   * 共用同一份檔案樹，寫入的檔案會標記為指定階段的輸出
+   */
+  public StagingTree forPhase(PhaseEnum phase) {
+    return new StagingTree(files, phase, coalescedWrites);
+  }
+
+  @Override
+  public void write(
+    Path relativePath,
+    byte[] content,
+    boolean executable,
+    StagedSource source
+  ) {
+    StagedFile previous = files.put(
+      this.key(relativePath),
+      new StagedFile(content, executable, phase, source)
+    );
+    // 重複寫入只在記憶體中取代，不會多寫一次磁碟
+    if (previous != null) {
+      coalescedWrites.incrementAndGet();
+    }
+  }
+
+  @Override
+  public Optional<byte[]> read(Path relativePath) {
+    return Optional
+      .ofNullable(files.get(this.key(relativePath)))
+      .map(StagedFile::content);
+  }
+
+  @Override
+  public boolean delete(Path relativePath) {
+    return files.remove(this.key(relativePath)) != null;
+  }
+
+  @Override
+  public int absorb(
+    Path sourceDirectory,
+    Path targetDirectory,
+    Predicate<Path> filter
+  ) throws IOException {
+    List<Path> sourceFiles;
+    try (Stream<Path> stream = Files.walk(sourceDirectory)) {
+      sourceFiles = stream.filter(Files::isRegularFile).toList();
+    }
+    int count = 0;
+    for (Path file : sourceFiles) {
+      Path relativePath = sourceDirectory.relativize(file);
+      if (filter.test(relativePath)) {
+        this.write(
+            targetDirectory.resolve(relativePath.toString()),
+            Files.readAllBytes(file),
+            Files.isExecutable(file)
+          );
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * 寫入已存在路徑而在記憶體中合併的次數
+   */
+  public int coalescedWrites() {
+    return coalescedWrites.get();
+  }
+
+  /**
+   * 目前檔案樹中所有檔案的相對路徑，依字典順序排列
+   */
+  public Set<String> paths() {
+    return Collections.unmodifiableSet(files.navigableKeySet());
+  }
+
+  public int size() {
+    return files.size();
+  }
+
+  public long totalBytes() {
+    return files
+      .values()
+      .stream()
+      .mapToLong(file -> file.content().length)
+      .sum();
+  }
+
+  /**
+   * 指定階段寫入的檔案數
+   */
+  public int size(PhaseEnum phase) {
+    return (int) files
+      .values()
+      .stream()
+      .filter(file -> file.phase() == phase)
+      .count();
+  }
+
+  /**
+   * 指定階段寫入的檔案大小
+   */
+  public long totalBytes(PhaseEnum phase) {
+    return files
+      .values()
+      .stream()
+      .filter(file -> file.phase() == phase)
+      .mapToLong(file -> file.content().length)
+      .sum();
+  }
+
+  /**
+   * 依路徑順序一次寫入磁碟，並寫入本次的 manifest
+   *
+   * 目標目錄不存在時，先寫到與目標同層的暫存目錄，完成後再以 rename 移到目標位置，
+   * 所以目標目錄不是完整存在就是完全不存在；
+   * 目標目錄已存在時只重寫內容有變動的檔案，並刪除重新產生後已不存在的舊檔案
+   *
+   * @param targetDirectory 專案輸出目錄
+   * @param manifest        上次產生的紀錄
+   */
+  public void commit(Path targetDirectory, GenerationManifest manifest)
+    throws IOException {
+    long start = System.nanoTime();
+    Path target = targetDirectory.toAbsolutePath().normalize();
+    Map<String, String> hashes = this.stageManifest(manifest);
+    if (Files.exists(target)) {
+      this.update(target, manifest, hashes);
+    } else {
+      this.create(target);
+      log.info(
+        "💾 已寫入 {} 個檔案 ({} bytes，合併 {} 次重複寫入) 到 {}，耗時 {} ms",
+        files.size(),
+        this.totalBytes(),
+        coalescedWrites.get(),
+        target,
+        (System.nanoTime() - start) / 1_000_000
+      );
+    }
+    files.clear();
+  }
+
+  private void create(Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path workDirectory = Files.createTempDirectory(
+      target.getParent(),
+      "." + target.getFileName() + ".staging-"
+    );
+    try {
+      this.flush(workDirectory);
+      try {
+        Files.move(workDirectory, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(workDirectory, target);
+      }
+    } catch (IOException | RuntimeException e) {
+      deleteRecursively(workDirectory);
+      throw e;
+    }
+  }
+
+  /**
+   * 增量更新既有專案，每個檔案以暫存檔 + rename 取代，manifest 最後寫入
+   */
+  private void update(
+    Path target,
+    GenerationManifest manifest,
+    Map<String, String> hashes
+  ) throws IOException {
+    String manifestKey = this.key(GenerationManifest.MANIFEST_PATH);
+    int written = 0;
+    int unchanged = 0;
+    int deleted = 0;
+    for (Map.Entry<String, StagedFile> entry : files.entrySet()) {
+      if (entry.getKey().equals(manifestKey)) {
+        continue;
+      }
+      Path file = target.resolve(entry.getKey());
+      // 內容與上次相同且磁碟上的檔案未被改動時不重寫，保留檔案時間讓下游增量編譯不失效；
+      // 與上次不同的檔案一定要重寫，不必讀取磁碟。未被改動是比對磁碟上的實際內容，
+      // 長度相同的手動修改也會被還原
+      String previousHash = manifest.previousHash(entry.getKey());
+      if (
+        hashes.get(entry.getKey()).equals(previousHash) &&
+        isUnchanged(file, entry.getValue())
+      ) {
+        unchanged++;
+        continue;
+      }
+      replace(file, entry.getValue());
+      written++;
+    }
+    for (String previousFile : manifest.previousFilesOfExecutedPhases()) {
+      Path file = target.resolve(this.key(Path.of(previousFile)));
+      if (!files.containsKey(previousFile) && Files.deleteIfExists(file)) {
+        log.debug("🗑️ 刪除已不再產生的檔案: {}", previousFile);
+        deleted++;
+        // 一併移除因此變成空的目錄
+        for (
+          Path directory = file.getParent();
+          !directory.equals(target) && isEmptyDirectory(directory);
+          directory = directory.getParent()
+        ) {
+          Files.delete(directory);
+        }
+      }
+    }
+    replace(target.resolve(manifestKey), files.get(manifestKey));
+    log.info(
+      "♻️ 增量更新 {}: 重寫 {} 個檔案，{} 個未變動，刪除 {} 個舊檔案",
+      target,
+      written,
+      unchanged,
+      deleted
+    );
+  }
+
+  /**
+   * 計算每個檔案的雜湊並將本次的 manifest 放進檔案樹
+   *
+   * @return 檔案路徑與內容雜湊
+   */
+  private Map<String, String> stageManifest(GenerationManifest manifest)
+    throws IOException {
+    Map<String, String> hashes = new HashMap<>();
+    Map<PhaseEnum, Map<String, String>> writtenFiles = new EnumMap<>(
+      PhaseEnum.class
+    );
+    files.forEach((path, file) -> {
+      String hash = GenerationManifest.sha256(file.content());
+      hashes.put(path, hash);
+      if (file.phase() != null) {
+        writtenFiles
+          .computeIfAbsent(file.phase(), key -> new TreeMap<>())
+          .put(path, hash);
+      }
+    });
+    files.put(
+      this.key(GenerationManifest.MANIFEST_PATH),
+      new StagedFile(manifest.next(writtenFiles), false, null, null)
+    );
+    return hashes;
+  }
+
+  /**
+   * 不建立任何目錄，直接將檔案樹串流成壓縮檔
+   *
+   * @param rootDirectory 壓縮檔內的根目錄名稱
+   * @param outputStream  輸出串流，寫完後不會關閉
+   * @param manifest      本次產生的紀錄
+   */
+  public void writeArchive(
+    ArchiveFormatEnum format,
+    String rootDirectory,
+    OutputStream outputStream,
+    GenerationManifest manifest
+  ) throws IOException {
+    long start = System.nanoTime();
+    // 壓縮檔也帶 manifest，解開後可直接作為增量產生的目標目錄
+    this.stageManifest(manifest);
+    ArchiveWriter.write(format, files, rootDirectory, outputStream);
+    log.info(
+      "📦 已串流 {} 個檔案 ({} bytes，合併 {} 次重複寫入) 為 {}，耗時 {} ms",
+      files.size(),
+      this.totalBytes(),
+      coalescedWrites.get(),
+      format,
+      (System.nanoTime() - start) / 1_000_000
+    );
+    files.clear();
+  }
+
+  /**
+   * 捨棄所有尚未寫入的內容
+   */
+  public void discard() {
+    if (!files.isEmpty()) {
+      log.warn("🗑️ 捨棄 {} 個尚未寫入的檔案", files.size());
+    }
+    files.clear();
+  }
+
+  /**
+   * 先依路徑順序建立所有目錄，再以平台執行緒同時寫入檔案；
+   * 網路磁碟上每個檔案的寫入延遲會彼此重疊，不再逐一累加。
+   * 寫入的 CPU 時間與配置的記憶體由 GenerationReport 計入 WRITE 步驟，虛擬執行緒無法量測
+   */
+  private void flush(Path directory) throws IOException {
+    // 檔案依路徑排序，同一目錄的檔案相鄰，每個目錄只需建立一次
+    Set<Path> createdDirectories = new HashSet<>();
+    createdDirectories.add(directory);
+    for (String key : files.keySet()) {
+      Path parent = directory.resolve(key).getParent();
+      if (createdDirectories.add(parent)) {
+        Files.createDirectories(parent);
+      }
+    }
+    AtomicInteger sequence = new AtomicInteger();
+    try (
+      ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(PARALLEL_WRITES, files.size())),
+        runnable -> {
+          Thread thread = new Thread(
+            runnable,
+            "staging-write-" + sequence.incrementAndGet()
+          );
+          thread.setDaemon(true);
+          return thread;
+        }
+      )
+    ) {
+      List<Future<Void>> futures = new ArrayList<>(files.size());
+      for (Map.Entry<String, StagedFile> entry : files.entrySet()) {
+        futures.add(
+          executor.submit(
+            GenerationReport.attributed(() -> {
+              writeNew(directory.resolve(entry.getKey()), entry.getValue());
+              return null;
+            })
+          )
+        );
+      }
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          futures.forEach(pending -> pending.cancel(true));
+          if (e.getCause() instanceof IOException cause) {
+            throw cause;
+          }
+          throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          futures.forEach(pending -> pending.cancel(true));
+          throw new InterruptedIOException("寫入專案檔案時被中斷");
+        }
+      }
+    }
+  }
+
+  private static void writeNew(Path file, StagedFile stagedFile)
+    throws IOException {
+    // 來源可能建立 hard link，之後設定執行權限會改到共用的檔案，可執行檔一律從記憶體寫入
+    if (stagedFile.source() != null && !stagedFile.executable()) {
+      stagedFile.source().writeTo(file);
+    } else {
+      Files.write(
+        file,
+        stagedFile.content(),
+        StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE
+      );
+    }
+    if (stagedFile.executable()) {
+      file.toFile().setExecutable(true, false);
+    }
+  }
+
+  private String key(Path relativePath) {
+    Path normalized = relativePath.normalize();
+    if (
+      normalized.isAbsolute() ||
+      normalized.toString().isEmpty() ||
+      normalized.startsWith("..")
+    ) {
+      throw new IllegalArgumentException(
+        "Invalid staging path: " + relativePath
+      );
+    }
+    return normalized.toString().replace('\\', '/');
+  }
+
+  /**
+   * 刪除第三方工具使用的暫存目錄
+   */
+  public static void deleteRecursively(Path directory) {
+    try (Stream<Path> stream = Files.walk(directory)) {
+      stream
+        .sorted(Comparator.reverseOrder())
+        .forEach(path -> {
+          try {
+            Files.deleteIfExists(path);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("⚠️ 無法清除暫存目錄 {}: {}", directory, e.getMessage());
+    }
+  }
+
+  private static boolean isEmptyDirectory(Path directory) throws IOException {
+    try (Stream<Path> stream = Files.list(directory)) {
+      return stream.findAny().isEmpty();
+    }
+  }
+
+  private static boolean isUnchanged(Path file, StagedFile stagedFile)
+    throws IOException {
+    byte[] content = stagedFile.content();
+    // 先比對大小與權限，不同時不必讀取內容
+    return (
+      Files.isRegularFile(file) &&
+      Files.size(file) == content.length &&
+      (!stagedFile.executable() || Files.isExecutable(file)) &&
+      Arrays.equals(Files.readAllBytes(file), content)
+    );
+  }
+
+  private static void replace(Path file, StagedFile stagedFile)
+    throws IOException {
+    Files.createDirectories(file.getParent());
+    Path temporaryFile = Files.createTempFile(
+      file.getParent(),
+      "." + file.getFileName(),
+      ".tmp"
+    );
+    try {
+      Files.write(temporaryFile, stagedFile.content());
+      if (stagedFile.executable()) {
+        temporaryFile.toFile().setExecutable(true, false);
+      }
+      Files.move(
+        temporaryFile,
+        file,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+      );
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temporaryFile);
+      throw e;
+    }
+  }
+
+  record StagedFile(
+    byte[] content,
+    boolean executable,
+    PhaseEnum phase,
+    StagedSource source
+  ) {}
+}
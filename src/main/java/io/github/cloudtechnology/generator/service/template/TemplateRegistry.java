@@ -0,0 +1,76 @@
+package io.github.cloudtechnology.generator.service.template;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * classpath 中 templates/ 下所有 Mustache 模板的共用快取
+ *
+ * 建置時已編譯為 Java renderer 的模板 (見 gradle/mustache-renderers.gradle) 直接呼叫 renderer，
+ * 其餘模板第一次使用時讀取並編譯，之後所有產生流程與執行緒共用同一個 Template，
+ * 產生 1,000 個 Repository 只會解析一次模板；Template 不保存執行狀態，可同時執行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TemplateRegistry {
+
+  private final Mustache.Compiler compiler;
+
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+  /**
+   * @param templatePath classpath 中的模板路徑，例如 templates/project/build.gradle.mustache
+   * @return 已編譯的模板
+   */
+  public Template get(String templatePath) {
+    return templates.computeIfAbsent(templatePath, this::compile);
+  }
+
+  /**
+   * 以模板產生內容，優先使用建置時產生的 renderer
+   */
+  @SuppressWarnings("unchecked")
+  public String render(String templatePath, Object context) {
+    TemplateRenderer<Object> renderer = (TemplateRenderer<Object>) CompiledTemplates.RENDERERS.get(
+      templatePath
+    );
+    if (renderer != null) {
+      return renderer.render(context);
+    }
+    return this.get(templatePath).execute(context);
+  }
+
+  private Template compile(String templatePath) {
+    long start = System.nanoTime();
+    try (
+      InputStream inputStream = TemplateRegistry.class
+        .getClassLoader()
+        .getResourceAsStream(templatePath)
+    ) {
+      if (inputStream == null) {
+        throw new IllegalArgumentException("找不到模板檔案: " + templatePath);
+      }
+      Template template = compiler.compile(
+        new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)
+      );
+      log.debug(
+        "🧩 已編譯模板 {}，耗時 {} ms",
+        templatePath,
+        (System.nanoTime() - start) / 1_000_000
+      );
+      return template;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package io.github.cloudtechnology.generator.service.template;
+
+/**
+ * 建置時由 Mustache 模板產生的 renderer，直接讀取變數並組合字串
+ *
+ * 輸出與 JMustache 相同：{{name}} 以 HTML 跳脫，{{{name}}} 與 {{&name}} 不跳脫，
+ * 變數為 null 時拋出例外
+ *
+ * @param <T> 渲染時傳入的型別
+ */
+@FunctionalInterface
+public interface TemplateRenderer<T> {
+  String render(T context);
+
+  static String raw(Object value, String name, String templatePath) {
+    if (value == null) {
+      throw new IllegalArgumentException(
+        "No value for '" + name + "' in " + templatePath
+      );
+    }
+    return String.valueOf(value);
+  }
+
+  /**
+   * 與 JMustache 的 Escapers.HTML 跳脫相同的字元
+   */
+  static String html(Object value, String name, String templatePath) {
+    String text = raw(value, name, templatePath);
+    StringBuilder builder = null;
+    for (int i = 0; i < text.length(); i++) {
+      String replacement =
+        switch (text.charAt(i)) {
+          case '&' -> "&amp;";
+          case '\'' -> "&#39;";
+          case '"' -> "&quot;";
+          case '<' -> "&lt;";
+          case '>' -> "&gt;";
+          case '`' -> "&#x60;";
+          case '=' -> "&#x3D;";
+          default -> null;
+        };
+      if (replacement != null && builder == null) {
+        builder = new StringBuilder(text.length() + 16).append(text, 0, i);
+      }
+      if (builder != null) {
+        if (replacement != null) {
+          builder.append(replacement);
+        } else {
+          builder.append(text.charAt(i));
+        }
+      }
+    }
+    return builder == null ? text : builder.toString();
+  }
+}
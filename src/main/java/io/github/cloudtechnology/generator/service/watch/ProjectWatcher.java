@@ -0,0 +1,194 @@
+package io.github.cloudtechnology.generator.service.watch;
+
+import io.github.cloudtechnology.generator.command.CreateProjectCommand;
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.github.cloudtechnology.generator.service.ProjectService;
+import io.github.cloudtechnology.generator.vo.GenerationReportVo;
+import io.github.cloudtechnology.generator.vo.PhaseReportVo;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * --watch 模式: 監看 OpenAPI 規格與 schema 來源，變動時重新產生同一個專案目錄
+ *
+ * 重新產生沿用 manifest 的增量判斷，規格變動只重新執行 OPENAPI，
+ * schema 變動只重新執行 JOOQ、REPOSITORY 與 LIQUIBASE，其餘階段略過。
+ * 檔案以 WatchService 監看所在目錄 (編輯器常以寫入暫存檔再 rename 的方式儲存)；
+ * 資料庫沒有變更通知，改為定期讀取 schema 指紋，與上次產生時 SchemaIntrospector 快照的指紋比對。
+ * 收到變動後等到 debounce 時間內沒有新的變動，才合併成一次產生
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectWatcher {
+
+  private final ProjectService projectService;
+  private final ApplicationProperties applicationProperties;
+
+  /**
+   * 先產生一次，之後持續監看直到執行緒被中斷或行程結束；
+   * 產生失敗時只記錄錯誤，修正輸入後會再次產生
+   *
+   * @param onGenerated 每次產生成功後呼叫，例如輸出報告
+   */
+  public void watch(
+    CreateProjectCommand createProjectCommand,
+    Consumer<GenerationReportVo> onGenerated
+  ) throws Exception {
+    Set<Path> files = Stream
+      .of(
+        createProjectCommand.getOpenAPIFIle(),
+        createProjectCommand.getSchemaFile()
+      )
+      .filter(Objects::nonNull)
+      .map(file -> file.toAbsolutePath().normalize())
+      .collect(Collectors.toCollection(LinkedHashSet::new));
+    boolean database = createProjectCommand.hasDatabase();
+    if (files.isEmpty() && !database) {
+      throw new IllegalArgumentException(
+        "--watch requires an OpenAPI file, a schema file or a database"
+      );
+    }
+    ApplicationProperties.Watch watch = applicationProperties.getWatch();
+    try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+      // WatchService 只能監看目錄，事件再依檔名過濾
+      List<Path> directories = files
+        .stream()
+        .map(Path::getParent)
+        .distinct()
+        .toList();
+      for (Path directory : directories) {
+        directory.register(
+          watchService,
+          StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY
+        );
+      }
+      String fingerprint = this.generate(createProjectCommand, onGenerated, null);
+      long nextPoll = System.nanoTime() + watch.getSchemaPollInterval().toNanos();
+      log.info(
+        "👀 監看 {}{}，按 Ctrl+C 結束",
+        files,
+        database ? " 與資料庫 schema" : ""
+      );
+
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<String> changes = new TreeSet<>();
+        WatchKey key = database
+          ? watchService.poll(
+            Math.max(0, nextPoll - System.nanoTime()),
+            TimeUnit.NANOSECONDS
+          )
+          : watchService.take();
+        // 收到相關的變動後繼續收集，直到 debounce 時間內沒有新事件
+        while (key != null) {
+          this.collect(key, files, changes);
+          key = changes.isEmpty()
+            ? null
+            : watchService.poll(
+              watch.getDebounce().toMillis(),
+              TimeUnit.MILLISECONDS
+            );
+        }
+        if (database && System.nanoTime() >= nextPoll) {
+          String current = this.fingerprint(createProjectCommand, fingerprint);
+          if (!Objects.equals(current, fingerprint)) {
+            changes.add(createProjectCommand.getDbUrl());
+            // 產生失敗時以此為基準，schema 沒有再變動前不會重複產生
+            fingerprint = current;
+          }
+          nextPoll = System.nanoTime() + watch.getSchemaPollInterval().toNanos();
+        }
+        if (!changes.isEmpty()) {
+          log.info("🔄 偵測到變動: {}", changes);
+          fingerprint = this.generate(createProjectCommand, onGenerated, fingerprint);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.info("👋 結束監看");
+  }
+
+  /**
+   * 只保留監看的檔案，事件遺失 (OVERFLOW) 時視為所有檔案都有變動
+   */
+  private void collect(WatchKey key, Set<Path> files, Set<String> changes) {
+    Path directory = (Path) key.watchable();
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        files
+          .stream()
+          .filter(file -> file.getParent().equals(directory))
+          .forEach(file -> changes.add(file.toString()));
+        continue;
+      }
+      Path file = directory.resolve((Path) event.context());
+      if (files.contains(file)) {
+        changes.add(file.toString());
+      }
+    }
+    key.reset();
+  }
+
+  /**
+   * @return 本次產生讀取的 schema 指紋，產生失敗時回傳 previous
+   */
+  private String generate(
+    CreateProjectCommand createProjectCommand,
+    Consumer<GenerationReportVo> onGenerated,
+    String previous
+  ) {
+    try {
+      GenerationReportVo report = projectService.create(createProjectCommand);
+      List<String> executed = report
+        .phases()
+        .stream()
+        .filter(phase -> !phase.skipped())
+        .map(PhaseReportVo::phase)
+        .toList();
+      log.info(
+        "✅ 已產生 {} ({} ms)，執行: {}",
+        createProjectCommand.getProjectTempPath(),
+        report.wallMillis(),
+        executed
+      );
+      onGenerated.accept(report);
+      return report.schemaFingerprint();
+    } catch (Exception e) {
+      log.error("❌ 產生失敗，修正後再次儲存即會重新產生", e);
+      return previous;
+    }
+  }
+
+  /**
+   * 讀取失敗 (例如資料庫暫時無法連線) 時沿用上次的指紋，下次再試
+   */
+  private String fingerprint(
+    CreateProjectCommand createProjectCommand,
+    String previous
+  ) {
+    try {
+      return projectService.schemaFingerprint(createProjectCommand);
+    } catch (Exception e) {
+      log.warn("⚠️ 無法讀取資料庫 schema: {}", e.getMessage());
+      return previous;
+    }
+  }
+}
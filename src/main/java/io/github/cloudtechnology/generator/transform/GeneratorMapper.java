@@ -16,6 +16,9 @@ import org.springframework.util.StringUtils;
 @Component
 public class GeneratorMapper {
 
+  /**
+   * @param schemaFilePath 沒有資料庫時改為解析的 DDL 檔案
+   */
   public CreateProjectCommand toCreateProjectCommand(
     Path projectTempPath,
     BuildToolEnum buildTool,
@@ -29,6 +32,7 @@ public class GeneratorMapper {
     String dbUrl,
     String dbUsername,
     String dbPassword,
+    String schemaFilePath,
     RuntimeEnum runtime
   ) throws IOException {
     CreateProjectCommandBuilder builder = CreateProjectCommand.builder();
@@ -60,6 +64,10 @@ public class GeneratorMapper {
       builder.dbUrl(dbUrl).dbUsername(dbUsername).dbPassword(dbPassword);
     }
 
+    if (StringUtils.hasText(schemaFilePath)) {
+      builder.schemaFile(Paths.get(schemaFilePath));
+    }
+
     builder.runtime(runtime);
     return builder.build();
   }
@@ -1,9 +1,11 @@
 package io.github.cloudtechnology.generator.vo;
 
+import io.github.cloudtechnology.generator.service.staging.GeneratedFileSink;
 import java.nio.file.Path;
 
 public record ApiVo(
   Path projectTempPath,
   Path specSource,
-  String packageName
+  String packageName,
+  GeneratedFileSink sink
 ) {}
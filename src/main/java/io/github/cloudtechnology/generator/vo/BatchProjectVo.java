@@ -0,0 +1,32 @@
+package io.github.cloudtechnology.generator.vo;
+
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import io.github.cloudtechnology.generator.bo.BuildToolEnum;
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+
+/**
+ * 批次產生檔案中的單一專案定義，欄位與 generator 指令的選項相同
+ *
+ * @param schemaFilePath 沒有資料庫時改為解析的 DDL 檔案
+ * @param projectPath 專案輸出目錄，未指定時為批次檔所在目錄下的 name
+ * @param archive     指定時輸出壓縮檔而不是目錄
+ * @param output      壓縮檔路徑，未指定時為 name 加上副檔名
+ */
+public record BatchProjectVo(
+  BuildToolEnum buildTool,
+  String groupId,
+  String artifactId,
+  String name,
+  String description,
+  String packageName,
+  String jvmVersion,
+  String openapiFilePath,
+  String dbUrl,
+  String dbUsername,
+  String dbPassword,
+  String schemaFilePath,
+  RuntimeEnum runtime,
+  String projectPath,
+  ArchiveFormatEnum archive,
+  String output
+) {}
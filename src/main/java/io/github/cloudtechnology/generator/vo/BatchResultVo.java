@@ -0,0 +1,23 @@
+package io.github.cloudtechnology.generator.vo;
+
+import java.nio.file.Path;
+
+/**
+ * 批次產生中單一專案的結果
+ *
+ * @param output        專案目錄或壓縮檔路徑
+ * @param elapsedMillis 產生耗時
+ * @param error         失敗原因，成功時為 null
+ * @param report        各階段的耗用資源，失敗時為 null
+ */
+public record BatchResultVo(
+  String name,
+  Path output,
+  long elapsedMillis,
+  String error,
+  GenerationReportVo report
+) {
+  public boolean success() {
+    return error == null;
+  }
+}
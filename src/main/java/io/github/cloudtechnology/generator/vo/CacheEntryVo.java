@@ -0,0 +1,10 @@
+package io.github.cloudtechnology.generator.vo;
+
+/**
+ * 快取中的一份完整產生結果
+ *
+ * @param key   輸入雜湊
+ * @param files 檔案數
+ * @param bytes 檔案大小
+ */
+public record CacheEntryVo(String key, int files, long bytes) {}
@@ -0,0 +1,7 @@
+package io.github.cloudtechnology.generator.vo;
+
+public record DatabaseVo(
+  String dbUrl,
+  String dbUsername,
+  String dbPassword
+) {}
@@ -0,0 +1,30 @@
+package io.github.cloudtechnology.generator.vo;
+
+import java.util.List;
+
+/**
+ * 單次產生流程的耗用報告，由 --report 輸出為 JSON
+ *
+ * @param project          專案名稱
+ * @param generatorVersion 產生此專案的 generator 版本
+ * @param wallMillis       整個流程的實際經過時間，階段平行執行時小於各階段總和
+ * @param cpuMillis        各階段 CPU 時間總和
+ * @param allocatedBytes   各階段配置的記憶體總和
+ * @param files            產生的檔案數
+ * @param bytes            產生的檔案大小
+ * @param schemaFingerprint 本次讀取的 schema 指紋，沒有資料庫或 DDL 檔案時為 null
+ * @param phases           依執行順序排列的各階段
+ * @param process          整個行程的耗用資源，批次產生時為產生到此專案為止的累計
+ */
+public record GenerationReportVo(
+  String project,
+  String generatorVersion,
+  long wallMillis,
+  long cpuMillis,
+  long allocatedBytes,
+  int files,
+  long bytes,
+  String schemaFingerprint,
+  List<PhaseReportVo> phases,
+  ProcessReportVo process
+) {}
@@ -0,0 +1,14 @@
+package io.github.cloudtechnology.generator.vo;
+
+import java.util.Map;
+
+/**
+ * 增量產生使用的 manifest，存放於產生專案的 .generator/manifest.json
+ *
+ * @param generatorVersion 產生此專案的 generator 版本
+ * @param phases           各階段的輸入雜湊與輸出檔案
+ */
+public record ManifestVo(
+  String generatorVersion,
+  Map<String, PhaseManifestVo> phases
+) {}
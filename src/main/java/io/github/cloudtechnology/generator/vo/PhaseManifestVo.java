@@ -0,0 +1,9 @@
+package io.github.cloudtechnology.generator.vo;
+
+import java.util.Map;
+
+/**
+ * @param inputHash 階段輸入 (規格檔、schema 指紋、模板、專案設定) 的雜湊
+ * @param files     階段輸出的檔案路徑與內容雜湊
+ */
+public record PhaseManifestVo(String inputHash, Map<String, String> files) {}
@@ -0,0 +1,22 @@
+package io.github.cloudtechnology.generator.vo;
+
+/**
+ * 單一階段的耗用資源
+ *
+ * @param phase          階段名稱
+ * @param skipped        增量產生時因輸入未變動而略過
+ * @param wallMillis     實際經過時間
+ * @param cpuMillis      執行緒使用的 CPU 時間，無法量測時為 -1
+ * @param allocatedBytes 執行緒配置的記憶體，無法量測時為 -1
+ * @param files          輸出的檔案數
+ * @param bytes          輸出的檔案大小
+ */
+public record PhaseReportVo(
+  String phase,
+  boolean skipped,
+  long wallMillis,
+  long cpuMillis,
+  long allocatedBytes,
+  int files,
+  long bytes
+) {}
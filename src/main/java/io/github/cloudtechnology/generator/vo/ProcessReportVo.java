@@ -0,0 +1,14 @@
+package io.github.cloudtechnology.generator.vo;
+
+/**
+ * 整個行程的耗用資源，在報告建立時量測，不含之後寫出報告與結束行程的時間
+ *
+ * @param startupMillis 從 JVM (原生執行檔為 isolate) 啟動到開始產生的時間
+ * @param cpuMillis     行程所有執行緒使用的 CPU 時間，無法量測時為 -1
+ * @param peakRssBytes  行程的最大常駐記憶體 (Linux 的 VmHWM)，無法量測時為 -1
+ */
+public record ProcessReportVo(
+  long startupMillis,
+  long cpuMillis,
+  long peakRssBytes
+) {}
@@ -2,6 +2,7 @@ package io.github.cloudtechnology.generator.vo;
 
 import io.github.cloudtechnology.generator.bo.BuildToolEnum;
 import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.service.staging.GeneratedFileSink;
 import java.nio.file.Path;
 
 public record ProjectVo(
@@ -13,5 +14,6 @@ public record ProjectVo(
   String description,
   String packageName,
   String jvmVersion,
-  RuntimeEnum runtime
+  RuntimeEnum runtime,
+  GeneratedFileSink sink
 ) {}
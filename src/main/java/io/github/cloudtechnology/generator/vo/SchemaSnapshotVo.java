@@ -0,0 +1,38 @@
+package io.github.cloudtechnology.generator.vo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import org.jooq.util.jaxb.tools.MiniJAXB;
+import org.jooq.util.xml.jaxb.InformationSchema;
+
+/**
+ * 一次讀取資料庫目錄後得到的 schema 模型
+ * JOOQ 與 Liquibase 共用同一份快照，不再各自連線讀取
+ *
+ * @param informationSchema jOOQ 的 information schema 模型
+ * @param xml               序列化後的 XML，供 JOOQ XMLDatabase 讀取
+ * @param fingerprint       XML 內容的 SHA-256，代表此 schema 的指紋
+ */
+public record SchemaSnapshotVo(
+  InformationSchema informationSchema,
+  String xml,
+  String fingerprint
+) {
+  public static SchemaSnapshotVo of(InformationSchema informationSchema) {
+    String xml = MiniJAXB.marshal(informationSchema);
+    try {
+      byte[] digest = MessageDigest
+        .getInstance("SHA-256")
+        .digest(xml.getBytes(StandardCharsets.UTF_8));
+      return new SchemaSnapshotVo(
+        informationSchema,
+        xml,
+        HexFormat.of().formatHex(digest)
+      );
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package io.github.cloudtechnology.generator.vo;
 
+import io.github.cloudtechnology.generator.service.staging.GeneratedFileSink;
 import java.nio.file.Path;
+import javax.sql.DataSource;
 
+/**
+ * @param dataSource 本次產生流程共用的連線池，需要查詢資料庫的實作必須由此借用連線
+ */
 public record SchemaVo(
   Path projectTempPath,
-  String dbUrl,
-  String dbUsername,
-  String dbPassword
+  SchemaSnapshotVo schemaSnapshot,
+  DataSource dataSource,
+  GeneratedFileSink sink
 ) {}
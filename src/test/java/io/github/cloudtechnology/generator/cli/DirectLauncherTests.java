@@ -0,0 +1,149 @@
+package io.github.cloudtechnology.generator.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.command.CreateProjectCommand;
+import io.github.cloudtechnology.generator.vo.BatchProjectVo;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 參數錯誤時在啟動 Spring 前就以結束代碼 2 結束，不會進入產生流程
+ */
+class DirectLauncherTests {
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+  private PrintStream originalOut;
+  private PrintStream originalErr;
+
+  @BeforeEach
+  void captureOutput() {
+    originalOut = System.out;
+    originalErr = System.err;
+    System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+    System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+  }
+
+  @AfterEach
+  void restoreOutput() {
+    System.setOut(originalOut);
+    System.setErr(originalErr);
+  }
+
+  @Test
+  void acceptsBothSeparatedAndInlineValues() {
+    Map<String, String> options = new LinkedHashMap<>();
+    List<String> springArgs = new ArrayList<>();
+
+    boolean help = DirectLauncher.parse(
+      new String[] {
+        "--name",
+        "demo",
+        "--packageName=com.example.demo",
+        "--runtime",
+        "kubernetes",
+        "--cli.cache.enabled=false",
+      },
+      options,
+      springArgs
+    );
+    BatchProjectVo project = DirectLauncher.toProject(options, false);
+
+    assertThat(help).isFalse();
+    assertThat(springArgs).containsExactly("--cli.cache.enabled=false");
+    assertThat(project.name()).isEqualTo("demo");
+    assertThat(project.packageName()).isEqualTo("com.example.demo");
+    assertThat(project.runtime()).isEqualTo(RuntimeEnum.KUBERNETES);
+    assertThat(project.artifactId()).isEqualTo("demo");
+    assertThat(project.groupId())
+      .isEqualTo(CreateProjectCommand.DEFAULT_GROUP_ID);
+    assertThat(project.projectPath()).isEqualTo("demo");
+  }
+
+  @Test
+  void rejectsAMissingValue() {
+    assertThatThrownBy(() ->
+        DirectLauncher.parse(
+          new String[] { "--name", "--packageName", "com.example.demo" },
+          new LinkedHashMap<>(),
+          new ArrayList<>()
+        )
+      )
+      .hasMessage("missing value for --name");
+
+    assertThat(DirectLauncher.run(new String[] { "--name" }))
+      .isEqualTo(DirectLauncher.EXIT_USAGE);
+  }
+
+  @Test
+  void rejectsAMissingRequiredOption() {
+    assertThat(DirectLauncher.run(new String[] { "--name", "demo" }))
+      .isEqualTo(DirectLauncher.EXIT_USAGE);
+    assertThat(stderr()).contains("missing required option --packageName");
+  }
+
+  @Test
+  void rejectsAnUnknownOption() {
+    assertThat(
+      DirectLauncher.run(
+        new String[] { "--name=demo", "--packageName=com.example.demo", "--nmae=x" }
+      )
+    )
+      .isEqualTo(DirectLauncher.EXIT_USAGE);
+    assertThat(stderr()).contains("unknown option --nmae");
+  }
+
+  @Test
+  void rejectsAnInvalidEnumValue() {
+    assertThat(
+      DirectLauncher.run(
+        new String[] {
+          "--name=demo",
+          "--packageName=com.example.demo",
+          "--archive=rar",
+        }
+      )
+    )
+      .isEqualTo(DirectLauncher.EXIT_USAGE);
+    assertThat(stderr()).contains("invalid value 'rar' for --archive");
+  }
+
+  @Test
+  void rejectsAnInvalidFlagValue() {
+    assertThat(
+      DirectLauncher.run(
+        new String[] {
+          "--name=demo",
+          "--packageName=com.example.demo",
+          "--watch=yes",
+        }
+      )
+    )
+      .isEqualTo(DirectLauncher.EXIT_USAGE);
+    assertThat(stderr()).contains("invalid value 'yes' for --watch");
+  }
+
+  @Test
+  void printsUsageForHelp() {
+    assertThat(DirectLauncher.run(new String[] { "--name", "demo", "--help" }))
+      .isEqualTo(DirectLauncher.EXIT_OK);
+    assertThat(out.toString(StandardCharsets.UTF_8))
+      .startsWith("Usage: generator-cli generate");
+    assertThat(stderr()).isEmpty();
+  }
+
+  private String stderr() {
+    return err.toString(StandardCharsets.UTF_8);
+  }
+}
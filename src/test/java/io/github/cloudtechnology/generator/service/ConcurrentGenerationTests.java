@@ -0,0 +1,221 @@
+package io.github.cloudtechnology.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.samskivert.mustache.Mustache;
+import io.github.cloudtechnology.generator.bo.BuildToolEnum;
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.github.cloudtechnology.generator.service.asset.StaticAssetBundle;
+import io.github.cloudtechnology.generator.service.cache.OpenApiModelCache;
+import io.github.cloudtechnology.generator.service.impl.GradleProjectGenerator;
+import io.github.cloudtechnology.generator.service.impl.JooqGenerator;
+import io.github.cloudtechnology.generator.service.impl.LiquibaseGenerator;
+import io.github.cloudtechnology.generator.service.impl.OpenAPIGenerator;
+import io.github.cloudtechnology.generator.service.impl.SpringRepositoryGenerator;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
+import io.github.cloudtechnology.generator.service.template.TemplateRegistry;
+import io.github.cloudtechnology.generator.vo.ApiVo;
+import io.github.cloudtechnology.generator.vo.ProjectVo;
+import io.github.cloudtechnology.generator.vo.RepositoryVo;
+import io.github.cloudtechnology.generator.vo.SchemaSnapshotVo;
+import io.github.cloudtechnology.generator.vo.SchemaVo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.jooq.SQLDialect;
+import org.jooq.Source;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * 同一組產生器 bean 同時產生多個專案，每個專案的輸出必須與單獨產生時完全相同
+ *
+ * 每個專案使用不同的 package，只要有任何狀態在專案之間共用，
+ * 就會出現其他專案的 package 或缺少檔案。
+ * 基準專案解析規格並存入 OpenAPI 模型快取，同時產生的專案都從快取還原模型，
+ * 輸出相同也代表還原的模型與重新解析的結果一致
+ */
+class ConcurrentGenerationTests {
+
+  private static final int PROJECTS = 8;
+
+  private static final TemplateRegistry TEMPLATE_REGISTRY =
+    new TemplateRegistry(Mustache.compiler());
+  private static final GradleProjectGenerator GRADLE_PROJECT_GENERATOR =
+    new GradleProjectGenerator(
+      TEMPLATE_REGISTRY,
+      new StaticAssetBundle(new ApplicationProperties())
+    );
+  private static final JooqGenerator JOOQ_GENERATOR = new JooqGenerator();
+  private static final SpringRepositoryGenerator SPRING_REPOSITORY_GENERATOR =
+    new SpringRepositoryGenerator(TEMPLATE_REGISTRY);
+  private static final LiquibaseGenerator LIQUIBASE_GENERATOR =
+    new LiquibaseGenerator();
+
+  @TempDir
+  static Path modelCacheDirectory;
+
+  private static OpenAPIGenerator openApiGenerator;
+  private static Path specFile;
+  private static SchemaSnapshotVo schemaSnapshot;
+  private static Map<String, String> expected;
+
+  @BeforeAll
+  static void generateBaseline() throws Exception {
+    ApplicationProperties applicationProperties = new ApplicationProperties();
+    applicationProperties.getModelCache().setDirectory(modelCacheDirectory);
+    openApiGenerator =
+      new OpenAPIGenerator(new OpenApiModelCache(applicationProperties));
+    specFile = new ClassPathResource("concurrency/openapi.yaml")
+      .getFile()
+      .toPath();
+    String ddl = new ClassPathResource("concurrency/schema.sql")
+      .getContentAsString(StandardCharsets.UTF_8);
+    schemaSnapshot =
+      SchemaSnapshotVo.of(
+        DSL
+          .using(SQLDialect.POSTGRES)
+          .meta(Source.of("CREATE SCHEMA public; SET SCHEMA public;\n" + ddl))
+          .informationSchema()
+      );
+    expected = generate(0);
+    // 每個階段都要有輸出，比對才有意義
+    assertThat(expected.keySet())
+      .anyMatch(path -> path.endsWith("build.gradle"))
+      .anyMatch(path -> path.contains("/interfaces/rest/"))
+      .anyMatch(path -> path.endsWith("/pojos/Customer.java"))
+      .anyMatch(path -> path.endsWith("/CustomerRepository.java"))
+      .anyMatch(path -> path.endsWith("changelog-init.yaml"));
+  }
+
+  @RepeatedTest(3)
+  void generatesProjectsConcurrentlyWithoutCrossTalk() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(PROJECTS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Map<String, String>>> futures = new ArrayList<>();
+      for (int i = 1; i <= PROJECTS; i++) {
+        int project = i;
+        futures.add(
+          executor.submit(() -> {
+            // 所有專案同時開始，盡量讓各階段重疊
+            start.await();
+            return generate(project);
+          })
+        );
+      }
+      start.countDown();
+      for (int i = 1; i <= PROJECTS; i++) {
+        assertThat(futures.get(i - 1).get())
+          .as("project %d", i)
+          .isEqualTo(rename(expected, 0, i));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * 依 ProjectService 的階段順序產生一個專案
+   *
+   * @return 檔案路徑與內容
+   */
+  private static Map<String, String> generate(int project) throws Exception {
+    String packageName = packageName(project);
+    Path projectPath = Path.of("project" + project);
+    StagingTree staging = new StagingTree();
+    GRADLE_PROJECT_GENERATOR.generate(
+      new ProjectVo(
+        projectPath,
+        BuildToolEnum.GRADLE,
+        "com.example",
+        "demo",
+        "demo",
+        "Demo project for Spring Boot",
+        packageName,
+        "17",
+        RuntimeEnum.CLOUDRUN,
+        staging.forPhase(PhaseEnum.SCAFFOLD)
+      )
+    );
+    openApiGenerator.generate(
+      new ApiVo(
+        projectPath,
+        specFile,
+        packageName,
+        staging.forPhase(PhaseEnum.OPENAPI)
+      )
+    );
+    JOOQ_GENERATOR.generate(
+      new RepositoryVo(
+        projectPath,
+        packageName,
+        schemaSnapshot,
+        null,
+        staging.forPhase(PhaseEnum.JOOQ)
+      )
+    );
+    SPRING_REPOSITORY_GENERATOR.generate(
+      new RepositoryVo(
+        projectPath,
+        packageName,
+        schemaSnapshot,
+        null,
+        staging.forPhase(PhaseEnum.REPOSITORY)
+      )
+    );
+    LIQUIBASE_GENERATOR.generate(
+      new SchemaVo(
+        projectPath,
+        schemaSnapshot,
+        null,
+        staging.forPhase(PhaseEnum.LIQUIBASE)
+      )
+    );
+
+    Map<String, String> files = new TreeMap<>();
+    for (String path : staging.paths()) {
+      files.put(
+        path,
+        new String(staging.read(Path.of(path)).orElseThrow(), StandardCharsets.UTF_8)
+      );
+    }
+    staging.discard();
+    return files;
+  }
+
+  private static Map<String, String> rename(
+    Map<String, String> files,
+    int from,
+    int to
+  ) {
+    Map<String, String> renamed = new TreeMap<>();
+    files.forEach((path, content) ->
+      renamed.put(
+        path.replace(packagePath(from), packagePath(to)),
+        content.replace(packageName(from), packageName(to))
+      )
+    );
+    return renamed;
+  }
+
+  private static String packageName(int project) {
+    return "com.example.project" + project;
+  }
+
+  private static String packagePath(int project) {
+    return packageName(project).replace('.', '/');
+  }
+}
@@ -0,0 +1,118 @@
+package io.github.cloudtechnology.generator.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.cloudtechnology.generator.configuration.properties.ApplicationProperties;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 快取鍵涵蓋以相對路徑引用的檔案、遠端引用不使用快取、依最後使用時間淘汰與損毀的項目
+ */
+class OpenApiModelCacheTests {
+
+  @TempDir
+  Path specDirectory;
+
+  @TempDir
+  Path cacheDirectory;
+
+  private final ApplicationProperties applicationProperties = new ApplicationProperties();
+  private final OpenApiModelCache openApiModelCache = new OpenApiModelCache(
+    applicationProperties
+  );
+
+  @BeforeEach
+  void configure() {
+    applicationProperties.getModelCache().setDirectory(cacheDirectory);
+    applicationProperties.getModelCache().setMaxEntries(2);
+  }
+
+  @Test
+  void keyChangesWhenAReferencedFileChanges() throws IOException {
+    Path spec = specDirectory.resolve("openapi.yaml");
+    Files.writeString(
+      spec,
+      """
+      openapi: 3.0.3
+      paths:
+        /pets:
+          $ref: 'paths/pets.yaml#/pets'
+      """
+    );
+    Path referenced = Files.createDirectories(specDirectory.resolve("paths"))
+      .resolve("pets.yaml");
+    Files.writeString(referenced, "pets:\n  get: {}\n");
+    String key = openApiModelCache.key(spec).orElseThrow();
+
+    assertThat(openApiModelCache.key(spec)).contains(key);
+
+    Files.writeString(referenced, "pets:\n  post: {}\n");
+
+    assertThat(openApiModelCache.key(spec).orElseThrow()).isNotEqualTo(key);
+  }
+
+  @Test
+  void remoteReferencesBypassTheCache() throws IOException {
+    Path spec = specDirectory.resolve("openapi.yaml");
+    Path referenced = specDirectory.resolve("schemas.yaml");
+    // 間接引用的遠端檔案同樣無法確認內容
+    Files.writeString(
+      referenced,
+      "Pet:\n  $ref: 'https://example.com/schemas.yaml#/Pet'\n"
+    );
+    Files.writeString(
+      spec,
+      "openapi: 3.0.3\ncomponents:\n  schemas:\n    $ref: './schemas.yaml'\n"
+    );
+
+    assertThat(openApiModelCache.key(spec)).isEmpty();
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedEntries() throws IOException {
+    openApiModelCache.store("a", openAPI("a"));
+    openApiModelCache.store("b", openAPI("b"));
+    touch("a", 2_000_000_000_000L);
+    touch("b", 1_000_000_000_000L);
+
+    openApiModelCache.store("c", openAPI("c"));
+
+    assertThat(openApiModelCache.load("b")).isEmpty();
+    assertThat(openApiModelCache.load("a").map(OpenAPI::getInfo).map(Info::getTitle))
+      .contains("a");
+    assertThat(openApiModelCache.load("c").map(OpenAPI::getInfo).map(Info::getTitle))
+      .contains("c");
+  }
+
+  @Test
+  void corruptEntriesAreMissesAndRemoved() throws IOException {
+    openApiModelCache.store("a", openAPI("a"));
+    Path entry = cacheDirectory.resolve("a.json");
+    Files.writeString(entry, "V30\n{\"info\": ");
+
+    Optional<OpenAPI> loaded = openApiModelCache.load("a");
+
+    assertThat(loaded).isEmpty();
+    assertThat(entry).doesNotExist();
+  }
+
+  private void touch(String key, long millis) throws IOException {
+    Files.setLastModifiedTime(
+      cacheDirectory.resolve(key + ".json"),
+      FileTime.fromMillis(millis)
+    );
+  }
+
+  private static OpenAPI openAPI(String title) {
+    return new OpenAPI().info(new Info().title(title).version("1.0.0"));
+  }
+}
@@ -0,0 +1,85 @@
+package io.github.cloudtechnology.generator.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
+import io.github.cloudtechnology.generator.vo.SchemaSnapshotVo;
+import io.github.cloudtechnology.generator.vo.SchemaVo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.jooq.util.xml.jaxb.Column;
+import org.jooq.util.xml.jaxb.InformationSchema;
+import org.junit.jupiter.api.Test;
+
+/**
+ * changelog 由 schema 快照自行轉換而不是 Liquibase 的 generateChangeLog，
+ * 以固定的 DDL 比對完整的輸出: 複合主鍵與外鍵、預設值、domain、enum、陣列與不同資料表的同名外鍵
+ */
+class LiquibaseGeneratorTests {
+
+  private static final Path FIXTURES = Path.of(
+    "src",
+    "test",
+    "resources",
+    "liquibase"
+  );
+  private static final Path CHANGELOG = Path.of(
+    "src",
+    "main",
+    "resources",
+    "db",
+    "changelog",
+    "history",
+    "changelog-init.yaml"
+  );
+
+  @Test
+  void convertsSnapshotToChangelog() throws Exception {
+    InformationSchema informationSchema = new JooqSchemaIntrospector()
+      .introspect(FIXTURES.resolve("schema.sql"))
+      .informationSchema();
+    // jOOQ 的 DDL 解析不支援 CREATE TYPE，以讀取資料庫時匯出的形式加入 enum 欄位
+    informationSchema
+      .getColumns()
+      .add(
+        new Column()
+          .withTableSchema(JooqSchemaIntrospector.INPUT_SCHEMA)
+          .withTableName("orders")
+          .withColumnName("status")
+          .withDataType("order_status")
+          .withColumnDefault("'NEW'::order_status")
+          .withIsNullable(false)
+          .withOrdinalPosition(4)
+      );
+    StagingTree stagingTree = new StagingTree();
+
+    new LiquibaseGenerator()
+      .generate(
+        new SchemaVo(
+          Path.of("unused"),
+          SchemaSnapshotVo.of(informationSchema),
+          null,
+          stagingTree
+        )
+      );
+
+    String changelog = new String(
+      stagingTree.read(CHANGELOG).orElseThrow(),
+      StandardCharsets.UTF_8
+    );
+    assertThat(normalize(changelog))
+      .isEqualTo(
+        normalize(Files.readString(FIXTURES.resolve("changelog-init.yaml")))
+      );
+  }
+
+  /**
+   * changeSet 的 id 前綴為 schema 指紋、author 為執行的使用者，不列入比對
+   */
+  private static String normalize(String changelog) {
+    return changelog
+      .replaceAll("(?m)^(\\s*id: )\\S+-(\\d+)$", "$1$2")
+      .replaceAll("(?m)^(\\s*author: ).*$", "$1generated");
+  }
+}
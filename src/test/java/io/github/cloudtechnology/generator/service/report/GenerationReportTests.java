@@ -0,0 +1,49 @@
+package io.github.cloudtechnology.generator.service.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.cloudtechnology.generator.service.staging.GenerationManifest;
+import io.github.cloudtechnology.generator.service.staging.StagingTree;
+import io.github.cloudtechnology.generator.vo.PhaseReportVo;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 步驟交給其他執行緒的工作，耗用的記憶體也要計入該步驟
+ */
+class GenerationReportTests {
+
+  private static final int WORKER_ALLOCATION = 16 * 1024 * 1024;
+
+  @Test
+  void attributesWorkerAllocationsToTheMeasuredStep() throws Exception {
+    GenerationReport report = new GenerationReport(
+      "demo",
+      new StagingTree(),
+      GenerationManifest.empty()
+    );
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      report.measureWrite(() ->
+        executor
+          .submit(
+            GenerationReport.attributed(() -> new byte[WORKER_ALLOCATION].length)
+          )
+          .get()
+      );
+    }
+
+    PhaseReportVo write = report.build().phases().get(0);
+    assertThat(write.phase()).isEqualTo(GenerationReport.WRITE);
+    // 呼叫端只等待結果，配置的記憶體幾乎都來自工作執行緒
+    assertThat(write.allocatedBytes()).isGreaterThanOrEqualTo(WORKER_ALLOCATION);
+  }
+
+  @Test
+  void leavesTasksOutsideAMeasurementUnwrapped() {
+    Callable<Integer> task = () -> 1;
+
+    assertThat(GenerationReport.attributed(task)).isSameAs(task);
+  }
+}
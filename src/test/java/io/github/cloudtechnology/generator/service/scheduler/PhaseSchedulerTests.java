@@ -0,0 +1,214 @@
+package io.github.cloudtechnology.generator.service.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 相依順序、排程前的檢查與失敗時的處理
+ */
+class PhaseSchedulerTests {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final PhaseScheduler scheduler = new PhaseScheduler(executor);
+
+  @AfterEach
+  void shutdown() throws InterruptedException {
+    executor.shutdownNow();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void runsPhasesAfterTheirDependencies() throws Exception {
+    List<PhaseEnum> completed = new CopyOnWriteArrayList<>();
+    // 順序與相依關係相反，確認不是依清單順序執行
+    scheduler.run(
+      List.of(
+        GenerationPhase.of(
+          PhaseEnum.LIQUIBASE,
+          () -> completed.add(PhaseEnum.LIQUIBASE),
+          PhaseEnum.SCHEMA
+        ),
+        GenerationPhase.of(
+          PhaseEnum.REPOSITORY,
+          () -> completed.add(PhaseEnum.REPOSITORY),
+          PhaseEnum.JOOQ
+        ),
+        GenerationPhase.of(
+          PhaseEnum.JOOQ,
+          () -> completed.add(PhaseEnum.JOOQ),
+          PhaseEnum.SCHEMA,
+          PhaseEnum.SCAFFOLD
+        ),
+        GenerationPhase.of(PhaseEnum.SCHEMA, () -> completed.add(PhaseEnum.SCHEMA)),
+        GenerationPhase.of(
+          PhaseEnum.SCAFFOLD,
+          () -> completed.add(PhaseEnum.SCAFFOLD)
+        )
+      )
+    );
+
+    assertThat(completed)
+      .containsExactlyInAnyOrder(
+        PhaseEnum.SCAFFOLD,
+        PhaseEnum.SCHEMA,
+        PhaseEnum.JOOQ,
+        PhaseEnum.REPOSITORY,
+        PhaseEnum.LIQUIBASE
+      );
+    assertThat(completed.indexOf(PhaseEnum.JOOQ))
+      .isGreaterThan(completed.indexOf(PhaseEnum.SCHEMA))
+      .isGreaterThan(completed.indexOf(PhaseEnum.SCAFFOLD));
+    assertThat(completed.indexOf(PhaseEnum.REPOSITORY))
+      .isGreaterThan(completed.indexOf(PhaseEnum.JOOQ));
+    assertThat(completed.indexOf(PhaseEnum.LIQUIBASE))
+      .isGreaterThan(completed.indexOf(PhaseEnum.SCHEMA));
+  }
+
+  @Test
+  void runsIndependentPhasesConcurrently() throws Exception {
+    // 兩個階段都要等到對方開始才結束，依序執行時會逾時
+    CountDownLatch started = new CountDownLatch(2);
+    GenerationPhase.PhaseTask task = () -> {
+      started.countDown();
+      if (!started.await(10, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("phases did not overlap");
+      }
+    };
+
+    scheduler.run(
+      List.of(
+        GenerationPhase.of(PhaseEnum.SCAFFOLD, task),
+        GenerationPhase.of(PhaseEnum.OPENAPI, task)
+      )
+    );
+
+    assertThat(started.getCount()).isZero();
+  }
+
+  @Test
+  void rejectsCyclicDependencies() {
+    Set<PhaseEnum> executed = ConcurrentHashMap.newKeySet();
+
+    assertThatThrownBy(() ->
+        scheduler.run(
+          List.of(
+            GenerationPhase.of(PhaseEnum.SCAFFOLD, () -> executed.add(PhaseEnum.SCAFFOLD)),
+            GenerationPhase.of(
+              PhaseEnum.JOOQ,
+              () -> executed.add(PhaseEnum.JOOQ),
+              PhaseEnum.REPOSITORY
+            ),
+            GenerationPhase.of(
+              PhaseEnum.REPOSITORY,
+              () -> executed.add(PhaseEnum.REPOSITORY),
+              PhaseEnum.JOOQ
+            )
+          )
+        )
+      )
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Cyclic");
+    // 排程前就檢查，沒有任何階段被執行
+    assertThat(executed).isEmpty();
+  }
+
+  @Test
+  void rejectsUnknownAndDuplicatePhases() {
+    assertThatThrownBy(() ->
+        scheduler.run(
+          List.of(GenerationPhase.of(PhaseEnum.JOOQ, () -> {}, PhaseEnum.SCHEMA))
+        )
+      )
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("missing phase SCHEMA");
+    assertThatThrownBy(() ->
+        scheduler.run(
+          List.of(
+            GenerationPhase.of(PhaseEnum.SCHEMA, () -> {}),
+            GenerationPhase.of(PhaseEnum.SCHEMA, () -> {})
+          )
+        )
+      )
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Duplicate phase");
+  }
+
+  @Test
+  void skipsDependentsOfAFailedPhase() {
+    Set<PhaseEnum> executed = ConcurrentHashMap.newKeySet();
+    IOException failure = new IOException("schema unavailable");
+
+    assertThatThrownBy(() ->
+        scheduler.run(
+          List.of(
+            GenerationPhase.of(
+              PhaseEnum.SCHEMA,
+              () -> {
+                throw failure;
+              }
+            ),
+            GenerationPhase.of(
+              PhaseEnum.JOOQ,
+              () -> executed.add(PhaseEnum.JOOQ),
+              PhaseEnum.SCHEMA
+            ),
+            GenerationPhase.of(
+              PhaseEnum.REPOSITORY,
+              () -> executed.add(PhaseEnum.REPOSITORY),
+              PhaseEnum.JOOQ
+            ),
+            GenerationPhase.of(
+              PhaseEnum.OPENAPI,
+              () -> executed.add(PhaseEnum.OPENAPI)
+            )
+          )
+        )
+      )
+      .isSameAs(failure);
+    // 只有不相依於失敗階段的 OPENAPI 執行，間接相依的 REPOSITORY 也被略過
+    assertThat(executed).containsExactly(PhaseEnum.OPENAPI);
+    assertThat(failure.getSuppressed()).isEmpty();
+  }
+
+  @Test
+  void rethrowsTheFirstFailureWithTheOthersSuppressed() {
+    IOException scaffold = new IOException("scaffold failed");
+    IllegalStateException openapi = new IllegalStateException("openapi failed");
+
+    // 以階段順序決定哪一個是第一個，與實際失敗的先後無關
+    assertThatThrownBy(() ->
+        scheduler.run(
+          List.of(
+            GenerationPhase.of(
+              PhaseEnum.OPENAPI,
+              () -> {
+                throw openapi;
+              }
+            ),
+            GenerationPhase.of(
+              PhaseEnum.SCAFFOLD,
+              () -> {
+                Thread.sleep(100);
+                throw scaffold;
+              }
+            )
+          )
+        )
+      )
+      .isSameAs(scaffold);
+    assertThat(scaffold.getSuppressed()).containsExactly(openapi);
+  }
+}
@@ -0,0 +1,117 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.cloudtechnology.generator.bo.ArchiveFormatEnum;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 解開 zip 與 tar 後檔案內容與權限必須與寫入 staging 時相同，gradlew 解開後要能直接執行
+ */
+class ArchiveWriterTests {
+
+  private static final String ROOT = "demo";
+
+  @Test
+  void zipKeepsUnixModes() throws IOException {
+    Map<String, Integer> modes = new HashMap<>();
+    Map<String, String> contents = new HashMap<>();
+    try (
+      ZipFile zipFile = new ZipFile(
+        new SeekableInMemoryByteChannel(this.archive(ArchiveFormatEnum.ZIP))
+      )
+    ) {
+      for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+        // unzip 只有在 made by 為 unix 時才會套用 external attributes 中的權限
+        assertThat(entry.getPlatform()).isEqualTo(ZipArchiveEntry.PLATFORM_UNIX);
+        modes.put(entry.getName(), entry.getUnixMode());
+        contents.put(
+          entry.getName(),
+          new String(
+            zipFile.getInputStream(entry).readAllBytes(),
+            StandardCharsets.UTF_8
+          )
+        );
+      }
+    }
+
+    this.assertEntries(modes, contents);
+  }
+
+  @Test
+  void tarKeepsUnixModes() throws IOException {
+    Map<String, Integer> modes = new HashMap<>();
+    Map<String, String> contents = new HashMap<>();
+    try (
+      TarArchiveInputStream tarInputStream = new TarArchiveInputStream(
+        new ByteArrayInputStream(this.archive(ArchiveFormatEnum.TAR))
+      )
+    ) {
+      for (
+        TarArchiveEntry entry = tarInputStream.getNextTarEntry();
+        entry != null;
+        entry = tarInputStream.getNextTarEntry()
+      ) {
+        // tar 標頭中的 mode 不含檔案類型，補上 S_IFREG 與 zip 比對
+        modes.put(entry.getName(), 0100000 | entry.getMode());
+        contents.put(
+          entry.getName(),
+          new String(tarInputStream.readAllBytes(), StandardCharsets.UTF_8)
+        );
+      }
+    }
+
+    this.assertEntries(modes, contents);
+  }
+
+  private byte[] archive(ArchiveFormatEnum format) throws IOException {
+    StagingTree stagingTree = new StagingTree();
+    stagingTree.write(
+      Path.of("gradlew"),
+      "#!/bin/sh\n".getBytes(StandardCharsets.UTF_8),
+      true
+    );
+    stagingTree.writeString(Path.of("build.gradle"), "plugins {}\n");
+    // 超過 ustar 100 bytes 名稱限制的路徑
+    stagingTree.writeString(
+      Path.of("src", "main", "java", "a".repeat(120), "App.java"),
+      "class App {}\n"
+    );
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    stagingTree.writeArchive(
+      format,
+      ROOT,
+      outputStream,
+      GenerationManifest.empty()
+    );
+    return outputStream.toByteArray();
+  }
+
+  private void assertEntries(
+    Map<String, Integer> modes,
+    Map<String, String> contents
+  ) {
+    String longPath = ROOT + "/src/main/java/" + "a".repeat(120) + "/App.java";
+    assertThat(modes)
+      .containsEntry(ROOT + "/gradlew", 0100755)
+      .containsEntry(ROOT + "/build.gradle", 0100644)
+      .containsEntry(longPath, 0100644)
+      .containsKey(ROOT + "/.generator/manifest.json");
+    assertThat(contents)
+      .containsEntry(ROOT + "/gradlew", "#!/bin/sh\n")
+      .containsEntry(longPath, "class App {}\n");
+  }
+}
@@ -0,0 +1,78 @@
+package io.github.cloudtechnology.generator.service.staging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.cloudtechnology.generator.bo.PhaseEnum;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 增量更新只略過磁碟上內容確實與本次產生相同的檔案，並刪除不再產生的檔案
+ */
+class StagingTreeTests {
+
+  private static final FileTime ORIGINAL_TIME = FileTime.fromMillis(
+    1_000_000_000_000L
+  );
+
+  @TempDir
+  Path projectDirectory;
+
+  @Test
+  void restoresHandEditsAndKeepsUnchangedFiles() throws IOException {
+    this.generate();
+    Path edited = projectDirectory.resolve("src/App.java");
+    Path untouched = projectDirectory.resolve("build.gradle");
+    // 長度相同的手動修改，大小與 manifest 的雜湊都無法察覺
+    Files.writeString(edited, "class Bpp {}\n");
+    Files.setLastModifiedTime(edited, ORIGINAL_TIME);
+    Files.setLastModifiedTime(untouched, ORIGINAL_TIME);
+
+    this.generate();
+
+    assertThat(edited).hasContent("class App {}");
+    assertThat(Files.getLastModifiedTime(edited)).isNotEqualTo(ORIGINAL_TIME);
+    assertThat(Files.getLastModifiedTime(untouched)).isEqualTo(ORIGINAL_TIME);
+  }
+
+  @Test
+  void removesTheOutputOfPhasesThatNoLongerRun() throws IOException {
+    this.generate(true);
+    Path controller = projectDirectory.resolve("src/api/PetsApi.java");
+    assertThat(controller).exists();
+
+    // 不再提供規格，OPENAPI 階段沒有執行
+    this.generate(false);
+
+    assertThat(controller).doesNotExist();
+    assertThat(projectDirectory.resolve("src/api")).doesNotExist();
+    assertThat(projectDirectory.resolve("src/App.java")).exists();
+    assertThat(projectDirectory.resolve(GenerationManifest.MANIFEST_PATH))
+      .content()
+      .doesNotContain(PhaseEnum.OPENAPI.getValue(), "PetsApi");
+  }
+
+  private void generate() throws IOException {
+    this.generate(false);
+  }
+
+  private void generate(boolean openapi) throws IOException {
+    GenerationManifest manifest = GenerationManifest.load(projectDirectory);
+    manifest.recordInput(PhaseEnum.SCAFFOLD, "input");
+    StagingTree stagingTree = new StagingTree();
+    StagingTree scaffold = stagingTree.forPhase(PhaseEnum.SCAFFOLD);
+    scaffold.writeString(Path.of("build.gradle"), "plugins {}\n");
+    scaffold.writeString(Path.of("src", "App.java"), "class App {}\n");
+    if (openapi) {
+      manifest.recordInput(PhaseEnum.OPENAPI, "spec");
+      stagingTree
+        .forPhase(PhaseEnum.OPENAPI)
+        .writeString(Path.of("src", "api", "PetsApi.java"), "interface PetsApi {}\n");
+    }
+    stagingTree.commit(projectDirectory, manifest);
+  }
+}
@@ -0,0 +1,78 @@
+package io.github.cloudtechnology.generator.service.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.samskivert.mustache.Mustache;
+import io.github.cloudtechnology.generator.bo.BuildToolEnum;
+import io.github.cloudtechnology.generator.bo.RuntimeEnum;
+import io.github.cloudtechnology.generator.vo.ProjectVo;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 建置時產生的 renderer 必須與 JMustache 解析同一個模板的結果完全相同
+ */
+class CompiledTemplatesTests {
+
+  /**
+   * 變數值包含需要 HTML 跳脫的字元
+   */
+  private static final ProjectVo PROJECT = new ProjectVo(
+    Path.of("demo"),
+    BuildToolEnum.GRADLE,
+    "com.example",
+    "demo-app",
+    "demo <app> & 'friends'",
+    "Demo \"project\" = `x`",
+    "com.example.demo",
+    "21",
+    RuntimeEnum.CLOUDRUN,
+    null
+  );
+
+  private static final Map<String, Object> REPOSITORY = Map.of(
+    "packageName",
+    "com.example.demo.infrastructure.repositories",
+    "className",
+    "CustomerRepository",
+    "pojoClassName",
+    "Customer",
+    "primaryKeyType",
+    "java.lang.Long",
+    "pojoImportPath",
+    "com.example.demo.infrastructure.repositories.tables.pojos.Customer"
+  );
+
+  private final TemplateRegistry interpreted = new TemplateRegistry(
+    Mustache.compiler()
+  );
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void compiledRenderersMatchJMustache() {
+    assertThat(CompiledTemplates.RENDERERS)
+      .containsKeys(
+        "templates/project/build.gradle.mustache",
+        "templates/repository/JpaRepository.mustache"
+      );
+    CompiledTemplates.RENDERERS.forEach((templatePath, renderer) -> {
+      Object context = templatePath.startsWith("templates/project/")
+        ? PROJECT
+        : REPOSITORY;
+      assertThat(((TemplateRenderer<Object>) renderer).render(context))
+        .as(templatePath)
+        .isEqualTo(interpreted.get(templatePath).execute(context));
+    });
+  }
+
+  @Test
+  void nullVariableFailsLikeJMustache() {
+    assertThatThrownBy(() ->
+        TemplateRenderer.html(null, "name", "templates/project/x.mustache")
+      )
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("name");
+  }
+}
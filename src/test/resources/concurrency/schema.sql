@@ -0,0 +1,14 @@
+CREATE TABLE tb_customer (
+  id BIGINT NOT NULL,
+  name VARCHAR(60) NOT NULL,
+  email VARCHAR(120),
+  created_time TIMESTAMP NOT NULL,
+  CONSTRAINT pk_customer PRIMARY KEY (id)
+);
+CREATE TABLE tb_order (
+  id VARCHAR(36) NOT NULL,
+  customer_id BIGINT NOT NULL,
+  amount NUMERIC(12, 2) NOT NULL,
+  CONSTRAINT pk_order PRIMARY KEY (id),
+  CONSTRAINT fk_order_customer FOREIGN KEY (customer_id) REFERENCES tb_customer (id)
+);
@@ -0,0 +1,37 @@
+CREATE DOMAIN email AS VARCHAR(320);
+
+CREATE TABLE customer (
+  id BIGINT NOT NULL,
+  email email NOT NULL,
+  name VARCHAR(100) NOT NULL DEFAULT 'anonymous',
+  tags TEXT[],
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT pk_customer PRIMARY KEY (id)
+);
+
+CREATE TABLE warehouse (
+  region CHAR(2) NOT NULL,
+  code INTEGER NOT NULL,
+  capacity NUMERIC(10, 2) DEFAULT 0,
+  CONSTRAINT pk_warehouse PRIMARY KEY (region, code)
+);
+
+CREATE TABLE orders (
+  id BIGINT NOT NULL,
+  customer_id BIGINT NOT NULL,
+  active BOOLEAN DEFAULT TRUE,
+  CONSTRAINT pk_orders PRIMARY KEY (id),
+  CONSTRAINT fk_parent FOREIGN KEY (customer_id) REFERENCES customer (id) ON DELETE CASCADE
+);
+
+-- 與 orders 同名的外鍵 fk_parent，PostgreSQL 只要求外鍵名稱在同一個資料表內唯一
+CREATE TABLE shipment (
+  id BIGINT NOT NULL,
+  order_id BIGINT NOT NULL,
+  warehouse_region CHAR(2) NOT NULL,
+  warehouse_code INTEGER NOT NULL,
+  CONSTRAINT pk_shipment PRIMARY KEY (id),
+  CONSTRAINT fk_parent FOREIGN KEY (order_id) REFERENCES orders (id),
+  CONSTRAINT fk_shipment_warehouse FOREIGN KEY (warehouse_region, warehouse_code) REFERENCES warehouse (region, code),
+  CONSTRAINT uk_shipment_order UNIQUE (order_id)
+);